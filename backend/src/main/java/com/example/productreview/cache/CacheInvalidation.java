@@ -0,0 +1,20 @@
+package com.example.productreview.cache;
+
+/**
+ * An eviction to replay on other nodes. Keys travel as their toString();
+ * a null key clears the whole cache.
+ */
+public record CacheInvalidation(String cacheName, String key) {
+
+    public static CacheInvalidation evict(String cacheName, Object key) {
+        return new CacheInvalidation(cacheName, String.valueOf(key));
+    }
+
+    public static CacheInvalidation clear(String cacheName) {
+        return new CacheInvalidation(cacheName, null);
+    }
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.productreview.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Replays local cache evictions on the other nodes.
+ *
+ * Evictions are collected (deduplicated) and published in batches every
+ * flush interval; peers poll for them every poll interval, so a peer serves a
+ * stale entry for roughly flush + poll at most. If polling keeps failing for
+ * longer than max-staleness, every registered cache is cleared instead, which
+ * keeps that bound even while the transport is down.
+ *
+ * Off by default (single node): publish() is then a no-op.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final CacheInvalidationTransport transport;
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Registration> caches = new ConcurrentHashMap<>();
+    private final Set<CacheInvalidation> pending = ConcurrentHashMap.newKeySet();
+    private volatile long lastPollNanos = System.nanoTime();
+
+    public CacheInvalidationBus(CacheInvalidationTransport transport,
+                                @Value("${cache.invalidation.enabled:false}") boolean enabled,
+                                @Value("${cache.invalidation.max-staleness:30s}") Duration maxStaleness) {
+        this.transport = transport;
+        this.enabled = enabled;
+        this.maxStaleness = maxStaleness;
+    }
+
+    // Local caches that remote invalidations apply to, by name
+    public void register(String cacheName, Cache<?, ?> cache) {
+        caches.put(cacheName, new Registration(cache, null));
+    }
+
+    // For caches with simple keys: turns the string form back into the key, so an eviction is a lookup
+    public void register(String cacheName, Cache<?, ?> cache, Function<String, ?> keyParser) {
+        caches.put(cacheName, new Registration(cache, keyParser));
+    }
+
+    public void publish(CacheInvalidation invalidation) {
+        if (enabled) {
+            pending.add(invalidation);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled || pending.isEmpty()) {
+            return;
+        }
+        List<CacheInvalidation> batch = new ArrayList<>(pending);
+        pending.removeAll(batch);
+        try {
+            transport.publish(nodeId, batch);
+        } catch (RuntimeException e) {
+            // Retried with the next flush
+            pending.addAll(batch);
+            log.warn("Publishing {} cache invalidations failed: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transport.receive(nodeId).forEach(this::apply);
+            lastPollNanos = System.nanoTime();
+        } catch (RuntimeException e) {
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+            if (System.nanoTime() - lastPollNanos > maxStaleness.toNanos()) {
+                log.warn("No invalidations received for over {}, clearing {} caches", maxStaleness, caches.size());
+                caches.values().forEach(registration -> registration.cache().invalidateAll());
+                lastPollNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        Registration registration = caches.get(invalidation.cacheName());
+        if (registration == null) {
+            return;
+        }
+        Cache<?, ?> cache = registration.cache();
+        if (invalidation.isClear()) {
+            cache.invalidateAll();
+        } else if (registration.keyParser() != null) {
+            cache.asMap().remove(registration.keyParser().apply(invalidation.key()));
+        } else {
+            // Keys only travel as strings; caches are bounded, so a scan is cheap enough
+            cache.asMap().keySet().removeIf(key -> invalidation.key().equals(String.valueOf(key)));
+        }
+    }
+
+    private record Registration(Cache<?, ?> cache, Function<String, ?> keyParser) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.productreview.cache;
+
+import java.util.List;
+
+/**
+ * Carries invalidations between nodes for {@link CacheInvalidationBus}.
+ * Implementations must not hand a node back its own invalidations.
+ */
+public interface CacheInvalidationTransport {
+
+    void publish(String origin, List<CacheInvalidation> invalidations);
+
+    // Invalidations published by other nodes since the previous call
+    List<CacheInvalidation> receive(String origin);
+}
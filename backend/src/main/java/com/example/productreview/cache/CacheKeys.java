@@ -0,0 +1,40 @@
+package com.example.productreview.cache;
+
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Cache keys for product listings and stats. Filters are normalized the same way
+ * ProductServiceImpl interprets them ("All", blank and null category all mean no
+ * filter; search is matched case-insensitively), so equivalent requests share an entry.
+ * Used from @Cacheable key expressions.
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    public static StatsKey stats(String category, String search) {
+        return new StatsKey(normalizeCategory(category), normalizeSearch(search));
+    }
+
+    public static ListingKey listing(String category, String search, Pageable pageable) {
+        return new ListingKey(normalizeCategory(category), normalizeSearch(search),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+    }
+
+    private static String normalizeCategory(String category) {
+        boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
+        return hasCategory ? category : null;
+    }
+
+    private static String normalizeSearch(String search) {
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        return hasSearch ? search.toLowerCase() : null;
+    }
+
+    public record StatsKey(String category, String search) {
+    }
+
+    public record ListingKey(String category, String search, int page, int size, String sort) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.productreview.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of the named Caffeine caches built in CacheConfig so their
+ * statistics can be reported through /api/ops/caches. Every registered cache
+ * is also bound to Micrometer (cache.* meters plus cache.load.duration
+ * percentile gauges), including the ones outside the Spring CacheManager.
+ */
+@Component
+public class CacheStatsRegistry {
+
+    // Same tag keys as Boot's CacheManager binding, so manager caches aren't registered twice
+    private static final String CACHE_MANAGER_TAG = "cacheManager";
+
+    private final Map<String, RegisteredCache> caches = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public CacheStatsRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void register(String name, Cache<?, ?> cache, LoadTimeStatsCounter counter) {
+        caches.put(name, new RegisteredCache(cache, counter));
+
+        Tags tags = Tags.of(CACHE_MANAGER_TAG, CACHE_MANAGER_TAG);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name, tags);
+        for (double quantile : new double[]{0.50, 0.95, 0.99}) {
+            Gauge.builder("cache.load.duration", counter, c -> c.loadTimePercentile(quantile) / (double) TimeUnit.MILLISECONDS.toNanos(1))
+                    .tags(tags.and("cache", name, "quantile", String.valueOf(quantile)))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        caches.keySet().stream().sorted().forEach(name -> result.put(name, describe(caches.get(name))));
+        return result;
+    }
+
+    private Map<String, Object> describe(RegisteredCache registered) {
+        CacheStats stats = registered.cache().stats();
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("estimatedSize", registered.cache().estimatedSize());
+        registered.cache().policy().eviction().ifPresent(eviction -> {
+            if (eviction.isWeighted()) {
+                eviction.weightedSize().ifPresent(weight -> info.put("weightedSize", weight));
+            }
+            info.put("maximum", eviction.getMaximum());
+        });
+        info.put("requestCount", stats.requestCount());
+        info.put("hitCount", stats.hitCount());
+        info.put("missCount", stats.missCount());
+        info.put("hitRate", Math.round(stats.hitRate() * 10000.0) / 10000.0);
+        info.put("evictionCount", stats.evictionCount());
+        info.put("evictionWeight", stats.evictionWeight());
+        info.put("loadCount", stats.loadCount());
+        info.put("loadFailureCount", stats.loadFailureCount());
+        info.put("averageLoadPenaltyMs", toMillis((long) stats.averageLoadPenalty()));
+
+        Map<String, Object> loadTime = new LinkedHashMap<>();
+        loadTime.put("p50", toMillis(registered.counter().loadTimePercentile(0.50)));
+        loadTime.put("p95", toMillis(registered.counter().loadTimePercentile(0.95)));
+        loadTime.put("p99", toMillis(registered.counter().loadTimePercentile(0.99)));
+        info.put("loadTimeMs", loadTime);
+        return info;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000.0) / 1000.0;
+    }
+
+    private record RegisteredCache(Cache<?, ?> cache, LoadTimeStatsCounter counter) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.productreview.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Invalidation transport over the shared database: publishers append rows to
+ * cache_invalidations, every node polls for ids above its watermark.
+ *
+ * Ids can commit out of order, so the watermark only moves over contiguous
+ * ids. Rows seen beyond a gap are applied once and remembered; a gap still
+ * open after gap-timeout (a rolled-back insert) is skipped. Old rows are
+ * purged on a schedule.
+ *
+ * Only works when every instance points at the same database server; with
+ * the default in-memory H2 each node has its own table and sees nothing.
+ */
+@Component
+public class DatabaseInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cache_invalidations (cache_name, cache_key, origin, created_at) VALUES (?, ?, ?, ?)";
+    private static final String POLL_SQL =
+            "SELECT id, cache_name, cache_key, origin FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int pollLimit;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    // Every id <= watermark has been handled; appliedAboveWatermark holds the ones handled past a gap
+    private long watermark = -1;
+    private final Set<Long> appliedAboveWatermark = new HashSet<>();
+    private long gapOpenSinceNanos;
+    // Not synchronized: the poll holds it across a JDBC query, which would pin a virtual thread
+    private final ReentrantLock receiveLock = new ReentrantLock();
+
+    public DatabaseInvalidationTransport(JdbcTemplate jdbcTemplate,
+                                         @Value("${cache.invalidation.enabled:false}") boolean enabled,
+                                         @Value("${cache.invalidation.poll-limit:1000}") int pollLimit,
+                                         @Value("${cache.invalidation.gap-timeout:5s}") Duration gapTimeout,
+                                         @Value("${cache.invalidation.retention:10m}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.pollLimit = pollLimit;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    @Override
+    public void publish(String origin, List<CacheInvalidation> invalidations) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, invalidations, invalidations.size(), (ps, invalidation) -> {
+            ps.setString(1, invalidation.cacheName());
+            ps.setString(2, invalidation.key());
+            ps.setString(3, origin);
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    @Override
+    public List<CacheInvalidation> receive(String origin) {
+        receiveLock.lock();
+        try {
+            return poll(origin);
+        } finally {
+            receiveLock.unlock();
+        }
+    }
+
+    private List<CacheInvalidation> poll(String origin) {
+        if (watermark < 0) {
+            // Start from "now": anything older is already reflected in freshly started caches
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations", Long.class);
+            watermark = maxId != null ? maxId : 0;
+            return List.of();
+        }
+
+        List<CacheInvalidation> received = new ArrayList<>();
+        jdbcTemplate.query(POLL_SQL, rs -> {
+            long id = rs.getLong("id");
+            if (appliedAboveWatermark.add(id) && !origin.equals(rs.getString("origin"))) {
+                received.add(new CacheInvalidation(rs.getString("cache_name"), rs.getString("cache_key")));
+            }
+        }, watermark, pollLimit);
+
+        advanceWatermark();
+        if (appliedAboveWatermark.isEmpty()) {
+            gapOpenSinceNanos = 0;
+        } else if (gapOpenSinceNanos == 0) {
+            gapOpenSinceNanos = System.nanoTime();
+        } else if (System.nanoTime() - gapOpenSinceNanos > gapTimeout.toNanos()) {
+            log.debug("Skipping cache invalidation id gap after {}", watermark);
+            watermark = appliedAboveWatermark.stream().mapToLong(Long::longValue).min().orElse(watermark + 1) - 1;
+            advanceWatermark();
+            gapOpenSinceNanos = appliedAboveWatermark.isEmpty() ? 0 : System.nanoTime();
+        }
+        return received;
+    }
+
+    private void advanceWatermark() {
+        while (appliedAboveWatermark.remove(watermark + 1)) {
+            watermark++;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.purge-interval-ms:60000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.debug("Purged {} cache invalidation rows", deleted);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.productreview.cache;
+
+import com.example.productreview.datasource.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Decorates the CacheManager so @CacheEvict (and any programmatic evict or
+ * clear) is also published on the {@link CacheInvalidationBus}, once the
+ * surrounding transaction commits. Reads and puts stay local.
+ *
+ * evict and clear also take effect locally only after commit: evicting earlier
+ * lets a concurrent read cache the pre-commit state again right away.
+ * evictIfPresent and invalidate stay immediate, as their contract requires.
+ *
+ * Values loaded through get(key, loader) (@Cacheable(sync = true)) are read
+ * from the primary, so a fill right after an eviction can't cache what a
+ * lagging replica still has.
+ */
+public class InvalidationBroadcastingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final ObjectProvider<CacheInvalidationBus> bus;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public InvalidationBroadcastingCacheManager(CacheManager delegate, ObjectProvider<CacheInvalidationBus> bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof CaffeineCache caffeineCache) {
+            bus.getObject().register(name, caffeineCache.getNativeCache());
+        }
+        return caches.computeIfAbsent(name, n -> new BroadcastingCache(target));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private void publish(CacheInvalidation invalidation) {
+        bus.getObject().publish(invalidation);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private final class BroadcastingCache implements Cache {
+
+        private final Cache target;
+
+        private BroadcastingCache(Cache target) {
+            this.target = target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, () -> {
+                ReadWriteRoutingDataSource.bindPrimaryReads();
+                try {
+                    return valueLoader.call();
+                } finally {
+                    ReadWriteRoutingDataSource.clearPrimaryReads();
+                }
+            });
+        }
+
+        @Override
+        public CompletableFuture<?> retrieve(Object key) {
+            return target.retrieve(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            return target.retrieve(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            afterCommit(() -> {
+                target.evict(key);
+                publish(CacheInvalidation.evict(getName(), key));
+            });
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean evicted = target.evictIfPresent(key);
+            // Peers may hold the entry even when this node doesn't
+            afterCommit(() -> publish(CacheInvalidation.evict(getName(), key)));
+            return evicted;
+        }
+
+        @Override
+        public void clear() {
+            afterCommit(() -> {
+                target.clear();
+                publish(CacheInvalidation.clear(getName()));
+            });
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean invalidated = target.invalidate();
+            afterCommit(() -> publish(CacheInvalidation.clear(getName())));
+            return invalidated;
+        }
+    }
+}
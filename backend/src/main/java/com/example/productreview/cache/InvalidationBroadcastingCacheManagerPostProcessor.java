@@ -0,0 +1,26 @@
+package com.example.productreview.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Wraps the CacheManager in an {@link InvalidationBroadcastingCacheManager}.
+ * The bus is looked up lazily, on first cache access.
+ */
+public class InvalidationBroadcastingCacheManagerPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<CacheInvalidationBus> bus;
+
+    public InvalidationBroadcastingCacheManagerPostProcessor(ObjectProvider<CacheInvalidationBus> bus) {
+        this.bus = bus;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof CacheManager cacheManager && !(bean instanceof InvalidationBroadcastingCacheManager)) {
+            return new InvalidationBroadcastingCacheManager(cacheManager, bus);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.productreview.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caffeine stats counter that also keeps the most recent load times in a ring
+ * buffer, so load-time percentiles can be reported next to the regular CacheStats.
+ */
+public class LoadTimeStatsCounter implements StatsCounter {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final StatsCounter delegate = new ConcurrentStatsCounter();
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicLong sampleCount = new AtomicLong();
+
+    @Override
+    public void recordHits(int count) {
+        delegate.recordHits(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        delegate.recordMisses(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        delegate.recordLoadSuccess(loadTime);
+        sample(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        delegate.recordLoadFailure(loadTime);
+        sample(loadTime);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        delegate.recordEviction(weight, cause);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return delegate.snapshot();
+    }
+
+    /**
+     * Load time percentile over the last {@value #SAMPLE_SIZE} loads, in nanoseconds.
+     * Returns 0 when nothing has been loaded yet.
+     */
+    public long loadTimePercentile(double percentile) {
+        int n = (int) Math.min(sampleCount.get(), SAMPLE_SIZE);
+        if (n == 0) {
+            return 0;
+        }
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * n) - 1;
+        return sorted[Math.max(0, Math.min(index, n - 1))];
+    }
+
+    private void sample(long loadTime) {
+        int slot = (int) (sampleCount.getAndIncrement() % SAMPLE_SIZE);
+        samples.set(slot, loadTime);
+    }
+}
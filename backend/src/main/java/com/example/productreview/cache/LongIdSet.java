@@ -0,0 +1,92 @@
+package com.example.productreview.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable set of ids backed by a sorted primitive array: 8 bytes per id,
+ * no boxing, binary-search lookups. Updates return a new copy, so instances
+ * can be shared between threads and cached as-is.
+ */
+public final class LongIdSet {
+
+    private static final LongIdSet EMPTY = new LongIdSet(new long[0]);
+
+    private final long[] ids;
+
+    private LongIdSet(long[] sortedIds) {
+        this.ids = sortedIds;
+    }
+
+    public static LongIdSet empty() {
+        return EMPTY;
+    }
+
+    public static LongIdSet of(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new LongIdSet(sorted);
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public LongIdSet with(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = id;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+        return new LongIdSet(copy);
+    }
+
+    public LongIdSet without(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return this;
+        }
+        if (ids.length == 1) {
+            return EMPTY;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, index);
+        System.arraycopy(ids, index + 1, copy, index, ids.length - index - 1);
+        return new LongIdSet(copy);
+    }
+
+    // Candidates that are in the set, in candidate order
+    public List<Long> retain(Collection<Long> candidates) {
+        List<Long> result = new ArrayList<>();
+        for (Long candidate : candidates) {
+            if (candidate != null && contains(candidate)) {
+                result.add(candidate);
+            }
+        }
+        return result;
+    }
+
+    public List<Long> toList() {
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.productreview.cache;
+
+import com.example.productreview.datasource.ReadWriteRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-user id sets (wishlist product ids, voted review ids) held as compact
+ * {@link LongIdSet}s, bounded in size and expired when the user goes idle.
+ *
+ * Entries are loaded once and then kept current write-through: after a write
+ * commits, the change is applied to the cached set if the user is cached.
+ * Updates are idempotent adds/removes, so applying one to a set that was
+ * loaded after the commit is harmless. With several nodes, the other nodes'
+ * copies are evicted through the {@link CacheInvalidationBus}. Loads read
+ * from the primary, as a node that was just told to drop a user's set has no
+ * read-your-writes stickiness for that user.
+ *
+ * A miss is loaded outside Caffeine's compute, so the query doesn't pin a
+ * virtual thread's carrier. While the first load for a user runs, the entry
+ * holds a LOADING marker and the loaded set only replaces that marker; an
+ * update or eviction that commits mid-load removes the marker, so a set that
+ * may have missed it isn't cached. Concurrent misses load without caching.
+ */
+@Component
+public class UserSessionCache {
+
+    public static final String WISHLISTS = "userWishlists";
+    public static final String VOTED_REVIEWS = "userVotedReviews";
+
+    // Placeholder entry while a load runs (never served)
+    private static final LongIdSet LOADING = LongIdSet.of(List.of(Long.MIN_VALUE));
+
+    private final Cache<String, LongIdSet> wishlists;
+    private final Cache<String, LongIdSet> votedReviews;
+    private final Set<String> wishlistLoads = ConcurrentHashMap.newKeySet();
+    private final Set<String> votedReviewLoads = ConcurrentHashMap.newKeySet();
+
+    private final CacheInvalidationBus invalidationBus;
+
+    public UserSessionCache(CacheStatsRegistry statsRegistry,
+                            CacheInvalidationBus invalidationBus,
+                            @Value("${cache.user-lookups.max-size:10000}") long maxSize,
+                            @Value("${cache.user-lookups.expire-after-access:15m}") Duration expireAfterAccess) {
+        this.wishlists = build(statsRegistry, WISHLISTS, maxSize, expireAfterAccess);
+        this.votedReviews = build(statsRegistry, VOTED_REVIEWS, maxSize, expireAfterAccess);
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(WISHLISTS, wishlists, Function.identity());
+        invalidationBus.register(VOTED_REVIEWS, votedReviews, Function.identity());
+    }
+
+    public LongIdSet wishlist(String userId, Function<String, LongIdSet> loader) {
+        return get(wishlists, wishlistLoads, userId, loader);
+    }
+
+    public LongIdSet votedReviews(String userId, Function<String, LongIdSet> loader) {
+        return get(votedReviews, votedReviewLoads, userId, loader);
+    }
+
+    private static LongIdSet get(Cache<String, LongIdSet> cache, Set<String> loading,
+                                 String userId, Function<String, LongIdSet> loader) {
+        LongIdSet cached = cache.getIfPresent(userId);
+        if (cached != null && cached != LOADING) {
+            return cached;
+        }
+        // One load per user caches its result; a concurrent one just reads
+        boolean owner = loading.add(userId);
+        ConcurrentMap<String, LongIdSet> entries = cache.asMap();
+        if (owner) {
+            entries.put(userId, LOADING);
+        }
+        ReadWriteRoutingDataSource.bindPrimaryReads();
+        try {
+            LongIdSet loaded = loader.apply(userId);
+            if (owner) {
+                entries.replace(userId, LOADING, loaded);
+            }
+            return loaded;
+        } finally {
+            ReadWriteRoutingDataSource.clearPrimaryReads();
+            if (owner) {
+                entries.remove(userId, LOADING);
+                loading.remove(userId);
+            }
+        }
+    }
+
+    // Other nodes drop their copy and reload it on next use
+    public void updateWishlistAfterCommit(String userId, UnaryOperator<LongIdSet> update) {
+        afterCommit(() -> {
+            wishlists.asMap().computeIfPresent(userId,
+                    (id, current) -> current != LOADING ? update.apply(current) : null);
+            invalidationBus.publish(CacheInvalidation.evict(WISHLISTS, userId));
+        });
+    }
+
+    public void updateVotedReviewsAfterCommit(String userId, UnaryOperator<LongIdSet> update) {
+        afterCommit(() -> {
+            votedReviews.asMap().computeIfPresent(userId,
+                    (id, current) -> current != LOADING ? update.apply(current) : null);
+            invalidationBus.publish(CacheInvalidation.evict(VOTED_REVIEWS, userId));
+        });
+    }
+
+    private static Cache<String, LongIdSet> build(CacheStatsRegistry statsRegistry, String name,
+                                                  long maxSize, Duration expireAfterAccess) {
+        LoadTimeStatsCounter counter = new LoadTimeStatsCounter();
+        Cache<String, LongIdSet> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats(() -> counter)
+                .build();
+        statsRegistry.register(name, cache, counter);
+        return cache;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
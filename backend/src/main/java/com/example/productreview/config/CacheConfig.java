@@ -1,15 +1,136 @@
 package com.example.productreview.config;
 
+import com.example.productreview.cache.CacheKeys;
+import com.example.productreview.cache.CacheInvalidationBus;
+import com.example.productreview.cache.CacheStatsRegistry;
+import com.example.productreview.cache.InvalidationBroadcastingCacheManagerPostProcessor;
+import com.example.productreview.cache.LoadTimeStatsCounter;
+import com.example.productreview.datasource.ReadWriteRoutingDataSource;
+import com.example.productreview.service.ProductDetailJsonCache;
+import com.example.productreview.service.ProductServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
- * Cache Configuration for AI-generated summaries
- * Uses Caffeine cache with 1-hour expiration
+ * Cache Configuration
+ * Every named cache gets its own Caffeine policy (sizing, weigher, expiry,
+ * refresh) and records stats, which are exposed through /api/ops/caches.
+ * Caches not listed here fall back to spring.cache.caffeine.spec.
+ *
+ * - aiSummaries:      weighted by summary length, backed by product_summaries
+ * - globalStats:      small, refreshed in the background after write
+ * - productListings:  short-lived listing pages, evicted when reviews change ratings
+ * - productDetailJson: encoded product detail responses, weighted by bytes, evicted with aiSummaries
+ * Per-user wishlist / voted review ids live in UserSessionCache.
+ *
+ * Evictions are broadcast to the other nodes (CacheInvalidationBus) when
+ * cache.invalidation.enabled is set.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    // Caffeine cache is configured via application.properties
-    // Cache names are defined in service methods using @Cacheable
+
+    public static final String AI_SUMMARIES = "aiSummaries";
+    public static final String GLOBAL_STATS = "globalStats";
+    public static final String PRODUCT_LISTINGS = "productListings";
+    public static final String PRODUCT_DETAIL_JSON = "productDetailJson";
+
+    @Value("${cache.ai-summaries.max-weight:2000000}")
+    private long aiSummariesMaxWeight;
+
+    @Value("${cache.ai-summaries.expire-after-access:12h}")
+    private Duration aiSummariesExpireAfterAccess;
+
+    @Value("${cache.global-stats.max-size:500}")
+    private long globalStatsMaxSize;
+
+    @Value("${cache.global-stats.expire-after-write:10m}")
+    private Duration globalStatsExpireAfterWrite;
+
+    @Value("${cache.global-stats.refresh-after-write:1m}")
+    private Duration globalStatsRefreshAfterWrite;
+
+    @Value("${cache.product-listings.max-size:1000}")
+    private long productListingsMaxSize;
+
+    @Value("${cache.product-listings.expire-after-write:2m}")
+    private Duration productListingsExpireAfterWrite;
+
+    @Value("${cache.product-detail-json.max-weight:33554432}")
+    private long productDetailJsonMaxWeight;
+
+    @Value("${cache.product-detail-json.expire-after-write:10m}")
+    private Duration productDetailJsonExpireAfterWrite;
+
+    // Static so the CacheManager is decorated as it's created
+    @Bean
+    public static InvalidationBroadcastingCacheManagerPostProcessor invalidationBroadcastingCacheManagerPostProcessor(
+            ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        return new InvalidationBroadcastingCacheManagerPostProcessor(invalidationBus);
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> namedCacheCustomizer(
+            CacheStatsRegistry statsRegistry,
+            ObjectProvider<ProductServiceImpl> productService) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(AI_SUMMARIES, build(statsRegistry, AI_SUMMARIES,
+                    Caffeine.newBuilder()
+                            // Weight = summary length in chars; cached nulls count as 1
+                            .maximumWeight(aiSummariesMaxWeight)
+                            .weigher((Object key, Object value) -> value instanceof String summary ? Math.max(1, summary.length()) : 1)
+                            .expireAfterAccess(aiSummariesExpireAfterAccess)));
+
+            // Stale stats are served while the refresh recomputes them in the background
+            CacheLoader<Object, Object> statsLoader = key -> {
+                CacheKeys.StatsKey statsKey = (CacheKeys.StatsKey) key;
+                ReadWriteRoutingDataSource.bindPrimaryReads();
+                try {
+                    return productService.getObject().computeGlobalStats(statsKey.category(), statsKey.search());
+                } finally {
+                    ReadWriteRoutingDataSource.clearPrimaryReads();
+                }
+            };
+            cacheManager.registerCustomCache(GLOBAL_STATS, build(statsRegistry, GLOBAL_STATS,
+                    Caffeine.newBuilder()
+                            .maximumSize(globalStatsMaxSize)
+                            .expireAfterWrite(globalStatsExpireAfterWrite)
+                            .refreshAfterWrite(globalStatsRefreshAfterWrite), statsLoader));
+
+            cacheManager.registerCustomCache(PRODUCT_LISTINGS, build(statsRegistry, PRODUCT_LISTINGS,
+                    Caffeine.newBuilder()
+                            .maximumSize(productListingsMaxSize)
+                            .expireAfterWrite(productListingsExpireAfterWrite)));
+
+            cacheManager.registerCustomCache(PRODUCT_DETAIL_JSON, build(statsRegistry, PRODUCT_DETAIL_JSON,
+                    Caffeine.newBuilder()
+                            .maximumWeight(productDetailJsonMaxWeight)
+                            .weigher((Object key, Object value) -> value instanceof ProductDetailJsonCache.EncodedJson json ? json.weight() : 1)
+                            .expireAfterWrite(productDetailJsonExpireAfterWrite)));
+        };
+    }
+
+    private static Cache<Object, Object> build(CacheStatsRegistry statsRegistry, String name,
+                                               Caffeine<Object, Object> builder) {
+        return build(statsRegistry, name, builder, null);
+    }
+
+    private static Cache<Object, Object> build(CacheStatsRegistry statsRegistry, String name,
+                                               Caffeine<Object, Object> builder, CacheLoader<Object, Object> loader) {
+        LoadTimeStatsCounter counter = new LoadTimeStatsCounter();
+        builder.recordStats(() -> counter);
+        Cache<Object, Object> cache = loader != null ? builder.build(loader) : builder.build();
+        statsRegistry.register(name, cache, counter);
+        return cache;
+    }
 }
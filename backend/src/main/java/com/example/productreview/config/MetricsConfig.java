@@ -0,0 +1,40 @@
+package com.example.productreview.config;
+
+import com.example.productreview.metrics.EntityLoadCountingIntegrator;
+import com.example.productreview.metrics.QueryTracingDataSourcePostProcessor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Metrics wiring beyond what Actuator auto-configures (http.server.requests,
+ * spring.data.repository.invocations, cache.*, jvm.*):
+ * - @Timed support for service methods (AISummaryService)
+ * - a JDBC proxy and a Hibernate hook feeding per-request statement, row and
+ *   entity-load counts (see RequestQueryMetricsFilter)
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Static so the DataSource is wrapped before anything else uses it
+    @Bean
+    public static QueryTracingDataSourcePostProcessor queryTracingDataSourcePostProcessor() {
+        return new QueryTracingDataSourcePostProcessor();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMetricsHibernateCustomizer() {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new EntityLoadCountingIntegrator()));
+    }
+}
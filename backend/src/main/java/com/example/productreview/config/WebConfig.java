@@ -0,0 +1,34 @@
+package com.example.productreview.config;
+
+import com.example.productreview.ratelimit.AdaptiveConcurrencyLimiter;
+import com.example.productreview.ratelimit.RateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request admission: per-user rate limits first (cheap, targeted), then the
+ * adaptive concurrency limit over all API calls. Long-lived notification
+ * streams, ops endpoints and AI chat (an upstream round trip, rate limited
+ * per user instead) are not counted.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(concurrencyLimiter)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/user/notifications/stream", "/api/products/*/chat", "/api/ops/**");
+    }
+}
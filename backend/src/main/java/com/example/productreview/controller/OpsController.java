@@ -0,0 +1,38 @@
+package com.example.productreview.controller;
+
+import com.example.productreview.cache.CacheStatsRegistry;
+import com.example.productreview.service.NotificationWriteQueue;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Operational endpoints for tuning the service in production.
+ */
+@RestController
+@RequestMapping("/api/ops")
+public class OpsController {
+
+    private final CacheStatsRegistry cacheStatsRegistry;
+    private final NotificationWriteQueue notificationWriteQueue;
+
+    public OpsController(CacheStatsRegistry cacheStatsRegistry, NotificationWriteQueue notificationWriteQueue) {
+        this.cacheStatsRegistry = cacheStatsRegistry;
+        this.notificationWriteQueue = notificationWriteQueue;
+    }
+
+    // Hit rate, evictions and load-time percentiles per named cache
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsRegistry.snapshot());
+    }
+
+    // Queue depth, accepted/rejected counts and flush latency of the notification write queue
+    @GetMapping("/notification-queue")
+    public ResponseEntity<Map<String, Object>> getNotificationQueueStats() {
+        return ResponseEntity.ok(notificationWriteQueue.snapshot());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.productreview.controller;
 
 import com.example.productreview.dto.ProductDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.service.ProductDetailJsonCache;
 import com.example.productreview.service.ProductService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -10,6 +11,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,9 +28,11 @@ public class ProductController {
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final ProductDetailJsonCache productDetailJsonCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductDetailJsonCache productDetailJsonCache) {
         this.productService = productService;
+        this.productDetailJsonCache = productDetailJsonCache;
     }
 
     // ✨ NEW: Global stats endpoint for hero section (supports filtering)
@@ -56,9 +62,25 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllProducts(category, search, pageable));
     }
 
+    // ✨ Pre-encoded ProductDTO JSON, gzipped when the client accepts it; ETag enables 304s
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductDTOById(id));
+    public ResponseEntity<byte[]> getProductById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductDetailJsonCache.EncodedJson json = productDetailJsonCache.get(id);
+        if (ifNoneMatch != null && ifNoneMatch.contains(json.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(json.etag()).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(json.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (json.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(json.gzipped());
+        }
+        return response.body(json.body());
     }
 
     @GetMapping("/{id}/reviews")
@@ -95,10 +117,23 @@ public class ProductController {
     }
     
     @GetMapping("/reviews/voted")
-    public ResponseEntity<List<Long>> getUserVotedReviews(@RequestHeader("X-User-ID") String userId) {
+    public ResponseEntity<List<Long>> getUserVotedReviews(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(required = false) List<Long> reviewIds) {
+        if (reviewIds != null) {
+            return ResponseEntity.ok(productService.getUserVotedReviewIds(userId, reviewIds));
+        }
         return ResponseEntity.ok(productService.getUserVotedReviewIds(userId));
     }
 
+    // ✨ Only the votes for one product's reviews (what the details screen needs)
+    @GetMapping("/{id}/reviews/voted")
+    public ResponseEntity<List<Long>> getUserVotedReviewsForProduct(
+            @PathVariable Long id,
+            @RequestHeader("X-User-ID") String userId) {
+        return ResponseEntity.ok(productService.getUserVotedReviewIdsForProduct(userId, id));
+    }
+
     @PostMapping("/{id}/chat")
     public ResponseEntity<Map<String, String>> chatAboutProduct(
             @PathVariable Long id, 
@@ -1,14 +1,23 @@
 package com.example.productreview.controller;
 
+import com.example.productreview.dto.CursorPage;
+import com.example.productreview.dto.NotificationBatchRequest;
+import com.example.productreview.dto.NotificationDTO;
 import com.example.productreview.dto.ProductDTO;
-import com.example.productreview.model.AppNotification;
+import com.example.productreview.dto.WishlistSyncRequest;
+import com.example.productreview.exception.BadRequestException;
+import com.example.productreview.service.NotificationPushService;
 import com.example.productreview.service.UserService;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -18,10 +27,15 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final int MAX_WISHLIST_SYNC_SIZE = 500;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final NotificationPushService notificationPushService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, NotificationPushService notificationPushService) {
         this.userService = userService;
+        this.notificationPushService = notificationPushService;
     }
 
     // --- Wishlist ---
@@ -48,6 +62,16 @@ public class UserController {
         return ResponseEntity.ok(userService.getWishlistProducts(userId, pageable));
     }
 
+    // ✨ Keyset-paginated wishlist products, most recently added first
+    @GetMapping("/wishlist/products/cursor")
+    public ResponseEntity<CursorPage<ProductDTO>> getWishlistProductsAfter(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getWishlistProducts(userId, after, limit));
+    }
+
     @PostMapping("/wishlist/{productId}")
     public ResponseEntity<Void> toggleWishlist(
             @RequestHeader("X-User-ID") String userId,
@@ -56,13 +80,46 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    // ✨ Bulk sync: {"add": [productIds], "remove": [productIds]}, returns the resulting wishlist
+    @PostMapping("/wishlist/sync")
+    public ResponseEntity<List<Long>> syncWishlist(
+            @RequestHeader("X-User-ID") String userId,
+            @Valid @RequestBody WishlistSyncRequest payload) {
+        if (payload.getAdd().size() + payload.getRemove().size() > MAX_WISHLIST_SYNC_SIZE) {
+            throw new BadRequestException("at most " + MAX_WISHLIST_SYNC_SIZE + " product ids per sync");
+        }
+        return ResponseEntity.ok(userService.syncWishlist(userId, payload.getAdd(), payload.getRemove()));
+    }
+
     // --- Notifications ---
 
+    // Newest notifications only; use /notifications/cursor to page further back
     @GetMapping("/notifications")
-    public ResponseEntity<List<AppNotification>> getNotifications(@RequestHeader("X-User-ID") String userId) {
-        return ResponseEntity.ok(userService.getNotifications(userId));
+    public ResponseEntity<List<NotificationDTO>> getNotifications(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getNotifications(userId, null, size).getItems());
+    }
+
+    // ✨ Keyset-paginated inbox, newest first
+    @GetMapping("/notifications/cursor")
+    public ResponseEntity<CursorPage<NotificationDTO>> getNotificationsAfter(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(userService.getNotifications(userId, after, limit));
     }
     
+    // ✨ Push stream (SSE) of new notifications and unread-count changes; reconnect with Last-Event-ID to resume
+    @GetMapping(value = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationPushService.connect(userId, lastEventId);
+    }
+
     @GetMapping("/notifications/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(@RequestHeader("X-User-ID") String userId) {
         return ResponseEntity.ok(Map.of("count", userService.getUnreadCount(userId)));
@@ -75,9 +132,8 @@ public class UserController {
     }
     
     @PutMapping("/notifications/read-all")
-    public ResponseEntity<Void> markAllAsRead(@RequestHeader("X-User-ID") String userId) {
-        userService.markAllAsRead(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Integer>> markAllAsRead(@RequestHeader("X-User-ID") String userId) {
+        return ResponseEntity.ok(Map.of("updated", userService.markAllAsRead(userId)));
     }
     
     @PostMapping("/notifications")
@@ -93,6 +149,13 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
     
+    // ✨ Bulk creation for system broadcasts; accepted into an async write queue (503 + Retry-After when full)
+    @PostMapping("/notifications/batch")
+    public ResponseEntity<Map<String, Integer>> createNotifications(@Valid @RequestBody NotificationBatchRequest batch) {
+        int accepted = userService.createNotifications(batch.getNotifications());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+    }
+    
     @DeleteMapping("/notifications/{id}")
     public ResponseEntity<Void> deleteNotification(@PathVariable Long id) {
         userService.deleteNotification(id);
@@ -100,8 +163,7 @@ public class UserController {
     }
     
     @DeleteMapping("/notifications")
-    public ResponseEntity<Void> deleteAllNotifications(@RequestHeader("X-User-ID") String userId) {
-        userService.deleteAllNotifications(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Integer>> deleteAllNotifications(@RequestHeader("X-User-ID") String userId) {
+        return ResponseEntity.ok(Map.of("deleted", userService.deleteAllNotifications(userId)));
     }
 }
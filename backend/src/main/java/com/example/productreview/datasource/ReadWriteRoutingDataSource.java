@@ -0,0 +1,86 @@
+package com.example.productreview.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the
+ * primary. Has to sit behind a LazyConnectionDataSourceProxy so the
+ * connection is fetched once the transaction's read-only flag is known.
+ *
+ * Read-your-writes: a user (X-User-ID, bound by RoutingUserFilter) whose
+ * request ran a read-write transaction keeps reading from the primary for
+ * the stickiness window, which should cover the replica's lag.
+ *
+ * Cache fills read from the primary too (bindPrimaryReads / clearPrimaryReads
+ * around the loader): a value loaded from a replica that hasn't caught up with
+ * the write behind an eviction would stay cached long after the lag is gone.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<String> CURRENT_USER = new ThreadLocal<>();
+    // Nesting depth, so an inner fill doesn't end an outer one
+    private static final ThreadLocal<Integer> PRIMARY_READS = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickiness) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(stickiness)
+                .build();
+    }
+
+    public static void bindUser(String userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    public static void clearUser() {
+        CURRENT_USER.remove();
+    }
+
+    public static void bindPrimaryReads() {
+        Integer depth = PRIMARY_READS.get();
+        PRIMARY_READS.set(depth == null ? 1 : depth + 1);
+    }
+
+    public static void clearPrimaryReads() {
+        Integer depth = PRIMARY_READS.get();
+        if (depth == null || depth <= 1) {
+            PRIMARY_READS.remove();
+        } else {
+            PRIMARY_READS.set(depth - 1);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String userId = CURRENT_USER.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Connections outside a transaction (DDL, migrations, plain repository calls) aren't writes we track
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+            return Route.PRIMARY;
+        }
+        if (PRIMARY_READS.get() != null) {
+            return Route.PRIMARY;
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
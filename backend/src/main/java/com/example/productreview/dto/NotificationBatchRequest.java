@@ -0,0 +1,22 @@
+package com.example.productreview.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class NotificationBatchRequest {
+
+    @NotEmpty(message = "notifications must not be empty")
+    @Size(max = 1000, message = "at most 1000 notifications per batch")
+    private List<@Valid NotificationRequest> notifications;
+
+    public List<NotificationRequest> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<NotificationRequest> notifications) {
+        this.notifications = notifications;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.productreview.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox entry as sent to clients; the notification entity minus the owning userId.
+ */
+public class NotificationDTO {
+    private Long id;
+    private String title;
+    private String message;
+    private boolean isRead;
+    private LocalDateTime createdAt;
+    private Long productId;
+
+    public NotificationDTO() {
+    }
+
+    public NotificationDTO(Long id, String title, String message, boolean isRead, LocalDateTime createdAt, Long productId) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        this.isRead = isRead;
+        this.createdAt = createdAt;
+        this.productId = productId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @JsonProperty("isRead")
+    public boolean isRead() {
+        return isRead;
+    }
+
+    public void setRead(boolean read) {
+        isRead = read;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+}
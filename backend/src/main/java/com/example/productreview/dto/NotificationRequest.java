@@ -0,0 +1,65 @@
+package com.example.productreview.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One notification to create for a user, as accepted by the batch endpoint.
+ */
+public class NotificationRequest {
+
+    @NotBlank(message = "userId is required")
+    private String userId;
+
+    @NotBlank(message = "title is required")
+    @Size(max = 255, message = "title must be at most 255 characters")
+    private String title;
+
+    @NotBlank(message = "message is required")
+    @Size(max = 255, message = "message must be at most 255 characters")
+    private String message;
+
+    private Long productId;
+
+    public NotificationRequest() {
+    }
+
+    public NotificationRequest(String userId, String title, String message, Long productId) {
+        this.userId = userId;
+        this.title = title;
+        this.message = message;
+        this.productId = productId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.productreview.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a wishlist entry joined with its product (see WishlistRepository).
+ */
+public interface WishlistProductView {
+    Long getWishlistItemId();
+    LocalDateTime getAddedAt();
+    Long getProductId();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    String getImageUrl();
+    Double getAverageRating();
+    Integer getReviewCount();
+}
@@ -0,0 +1,32 @@
+package com.example.productreview.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of POST /api/user/wishlist/sync; either list may be omitted, but not sent as null
+public class WishlistSyncRequest {
+
+    @NotNull(message = "add must be a list of product ids")
+    private List<@NotNull(message = "product id must not be null") Long> add = new ArrayList<>();
+
+    @NotNull(message = "remove must be a list of product ids")
+    private List<@NotNull(message = "product id must not be null") Long> remove = new ArrayList<>();
+
+    public List<Long> getAdd() {
+        return add;
+    }
+
+    public void setAdd(List<Long> add) {
+        this.add = add;
+    }
+
+    public List<Long> getRemove() {
+        return remove;
+    }
+
+    public void setRemove(List<Long> remove) {
+        this.remove = remove;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.productreview.event;
+
+import java.util.Objects;
+
+/**
+ * Published inside the writing transaction when a product's price or average
+ * rating changes. Listeners that act on it should run after commit.
+ */
+public record ProductChangedEvent(Long productId, String productName,
+                                  Double oldPrice, Double newPrice,
+                                  Double oldRating, Double newRating) {
+
+    public static ProductChangedEvent ratingChanged(Long productId, String productName, Double price,
+                                                    Double oldRating, Double newRating) {
+        return new ProductChangedEvent(productId, productName, price, price, oldRating, newRating);
+    }
+
+    // Collapses two consecutive changes into one: earliest "old", latest "new"
+    public ProductChangedEvent followedBy(ProductChangedEvent next) {
+        return new ProductChangedEvent(productId, next.productName, oldPrice, next.newPrice, oldRating, next.newRating);
+    }
+
+    public boolean priceDropped() {
+        return oldPrice != null && newPrice != null && newPrice < oldPrice;
+    }
+
+    public boolean ratingChanged() {
+        return !Objects.equals(oldRating, newRating);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.productreview.exception;
+
+/**
+ * Invalid client input that isn't covered by bean validation (mapped to 400).
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.productreview.exception;
+
+/**
+ * Temporary overload, e.g. a full write queue (mapped to 503 with Retry-After).
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.productreview.exception;
+
+/**
+ * Rate limit hit or load shed (mapped to 429 with Retry-After).
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productreview.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records SQL statements, rows read and entities loaded per request, tagged
+ * like http.server.requests (method + uri template), as percentile histograms.
+ *
+ * Requests over the query budget are counted, and a sample of them is logged
+ * with the statements they ran, which is usually enough to spot an N+1 or an
+ * unbounded load.
+ */
+@Component
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestQueryMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final long maxRows;
+    private final int maxEntities;
+    private final double traceSampleRate;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${query-budget.max-statements:20}") int maxStatements,
+                                     @Value("${query-budget.max-rows:2000}") long maxRows,
+                                     @Value("${query-budget.max-entities:500}") int maxEntities,
+                                     @Value("${query-budget.trace-sample-rate:0.1}") double traceSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxRows = maxRows;
+        this.maxEntities = maxEntities;
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        request.setAttribute(RequestQueryStats.REQUEST_ATTRIBUTE, stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.clear();
+            String uri = uriTemplate(request);
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+            summary("http.server.requests.sql.statements", tags).record(stats.getStatements());
+            summary("http.server.requests.sql.rows", tags).record(stats.getRows());
+            summary("http.server.requests.entities.loaded", tags).record(stats.getEntitiesLoaded());
+            checkBudget(request.getMethod(), uri, tags, stats);
+        }
+    }
+
+    private void checkBudget(String method, String uri, Tags tags, RequestQueryStats stats) {
+        if (stats.getStatements() <= maxStatements && stats.getRows() <= maxRows && stats.getEntitiesLoaded() <= maxEntities) {
+            return;
+        }
+        meterRegistry.counter("http.server.requests.query.budget.exceeded", tags).increment();
+        if (ThreadLocalRandom.current().nextDouble() < traceSampleRate) {
+            log.warn("Query budget exceeded by {} {} ({}; budget statements={}, rows={}, entities={}). Statements:\n  {}",
+                    method, uri, stats, maxStatements, maxRows, maxEntities,
+                    String.join("\n  ", stats.getSampledStatements()));
+        }
+    }
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
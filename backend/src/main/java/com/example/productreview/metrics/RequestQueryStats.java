@@ -0,0 +1,87 @@
+package com.example.productreview.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-request database work, collected on the request thread by the JDBC
+ * proxy (statements, rows read) and a Hibernate hook (entities hydrated).
+ * Outside a request (scheduled jobs, startup) nothing is collected.
+ */
+public final class RequestQueryStats {
+
+    // The stats object is also left on the request for tests (see QueryBudgetMatchers)
+    public static final String REQUEST_ATTRIBUTE = RequestQueryStats.class.getName();
+
+    private static final int MAX_SAMPLED_STATEMENTS = 25;
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private int entitiesLoaded;
+    private final List<String> sampledStatements = new ArrayList<>();
+
+    private RequestQueryStats() {
+    }
+
+    public static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    static void onStatement(String sql) {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            if (stats.sampledStatements.size() < MAX_SAMPLED_STATEMENTS) {
+                stats.sampledStatements.add(sql);
+            }
+        }
+    }
+
+    static void onRow() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows++;
+        }
+    }
+
+    static void onEntityLoaded() {
+        RequestQueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public int getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    // The first statements of the request, in execution order
+    public List<String> getSampledStatements() {
+        return Collections.unmodifiableList(sampledStatements);
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", entitiesLoaded=" + entitiesLoaded;
+    }
+}
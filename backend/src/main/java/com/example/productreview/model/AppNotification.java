@@ -4,14 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_read_created", columnList = "is_read, created_at")
+})
 public class AppNotification {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private String userId; // UUID from frontend
     
     @Column(nullable = false)
@@ -20,8 +23,10 @@ public class AppNotification {
     @Column(nullable = false)
     private String message;
     
+    @Column(name = "is_read")
     private boolean isRead = false;
     
+    @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
     
     // Optional: Link to a product
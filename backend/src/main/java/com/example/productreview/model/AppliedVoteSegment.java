@@ -0,0 +1,31 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a vote log segment whose deltas are in reviews.helpful_count. Written in
+ * the same transaction as the counter update so a replay after a crash can skip
+ * the segment (see HelpfulVoteBuffer). Removed once the segment file is deleted.
+ */
+@Entity
+@Table(name = "vote_log_applied")
+public class AppliedVoteSegment {
+
+    @Id
+    @Column(name = "segment_id")
+    private Long segmentId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public AppliedVoteSegment() {}
+
+    // Getters and Setters
+    public Long getSegmentId() { return segmentId; }
+    public void setSegmentId(Long segmentId) { this.segmentId = segmentId; }
+
+    public LocalDateTime getAppliedAt() { return appliedAt; }
+    public void setAppliedAt(LocalDateTime appliedAt) { this.appliedAt = appliedAt; }
+}
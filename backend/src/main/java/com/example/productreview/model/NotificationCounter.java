@@ -0,0 +1,33 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-user unread notification count, maintained alongside every notification
+ * write so reads never have to COUNT the inbox.
+ */
+@Entity
+@Table(name = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+    public NotificationCounter() {}
+
+    public NotificationCounter(String userId, long unreadCount) {
+        this.userId = userId;
+        this.unreadCount = unreadCount;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(long unreadCount) { this.unreadCount = unreadCount; }
+}
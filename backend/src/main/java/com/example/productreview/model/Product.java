@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -23,7 +24,9 @@ public class Product {
     @NotBlank(message = "Product description is required")
     private String description;
 
+    // Batched so a page of products loads its categories in one query, not one per product
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_categories", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "category")
     private Set<String> categories = new HashSet<>(); // ✨ Changed from String to Set<String>
@@ -0,0 +1,52 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted AI summary for a product (second tier behind the aiSummaries cache).
+ * reviewHash fingerprints the reviews the summary was generated from, so a stored
+ * summary is only reused while those inputs are unchanged.
+ */
+@Entity
+@Table(name = "product_summaries")
+public class ProductSummary {
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false, length = 64)
+    private String reviewHash;
+
+    @Column(nullable = false, length = 4000)
+    private String summary;
+
+    private LocalDateTime updatedAt;
+
+    public ProductSummary() {}
+
+    public ProductSummary(Long productId, String reviewHash, String summary) {
+        this.productId = productId;
+        this.reviewHash = reviewHash;
+        this.summary = summary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public String getReviewHash() { return reviewHash; }
+    public void setReviewHash(String reviewHash) { this.reviewHash = reviewHash; }
+
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,17 +3,18 @@ package com.example.productreview.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "review_votes")
+@Table(name = "review_votes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_review_votes_user_review", columnNames = {"user_id", "review_id"}))
 public class ReviewVote {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private String userId;
     
-    @Column(nullable = false)
+    @Column(name = "review_id", nullable = false)
     private Long reviewId;
 
     public ReviewVote() {}
@@ -1,21 +1,31 @@
 package com.example.productreview.model;
 
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wishlist_items")
+@Table(name = "wishlist_items",
+        uniqueConstraints = @UniqueConstraint(name = "uk_wishlist_items_user_product", columnNames = {"user_id", "product_id"}),
+        indexes = {
+                @Index(name = "idx_wishlist_items_user_created", columnList = "user_id, created_at"),
+                @Index(name = "idx_wishlist_items_product", columnList = "product_id, id")
+        })
 public class WishlistItem {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private String userId; // UUID from frontend
     
-    @Column(nullable = false)
+    @Column(name = "product_id", nullable = false)
     private Long productId;
 
+    // Date added, used for ordering and keyset pagination
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
     public WishlistItem() {}
 
     public WishlistItem(String userId, Long productId) {
@@ -23,6 +33,13 @@ public class WishlistItem {
         this.productId = productId;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -46,4 +63,12 @@ public class WishlistItem {
     public void setProductId(Long productId) {
         this.productId = productId;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,158 @@
+package com.example.productreview.ratelimit;
+
+import com.example.productreview.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caps in-flight API requests and sheds the excess with 429s. The cap adapts
+ * every interval by comparing the p99 of recent latencies with a baseline:
+ * the lowest p99 seen, drifting up 1% per interval so it follows real shifts.
+ *
+ * The limit only shrinks when p99 exceeds tolerance x baseline (and the latency
+ * floor) while in-flight requests are near the limit. Slow requests without
+ * contention are the upstream's problem, not overload. The shrink is
+ * proportional to how far p99 overshoots, down to backoff-ratio per step. The
+ * limit grows back while latency is healthy and traffic presses against it, or
+ * while it is below its initial value.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final String START_ATTRIBUTE = AdaptiveConcurrencyLimiter.class.getName() + ".start";
+    private static final int SAMPLE_SIZE = 2048;
+    private static final int MIN_SAMPLES = 20;
+    private static final double NEAR_LIMIT = 0.9;
+
+    private final boolean enabled;
+    private final long latencyFloorNanos;
+    private final double tolerance;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+
+    private volatile int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLongArray latencies = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicLong recorded = new AtomicLong();
+    private long recordedAtLastAdjust;
+    private long baselineNanos;
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${load-shedding.enabled:true}") boolean enabled,
+                                      @Value("${load-shedding.latency-floor:100ms}") Duration latencyFloor,
+                                      @Value("${load-shedding.tolerance:2.0}") double tolerance,
+                                      @Value("${load-shedding.initial-limit:200}") int initialLimit,
+                                      @Value("${load-shedding.min-limit:10}") int minLimit,
+                                      @Value("${load-shedding.max-limit:1000}") int maxLimit,
+                                      @Value("${load-shedding.backoff-ratio:0.9}") double backoffRatio) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.latencyFloorNanos = latencyFloor.toNanos();
+        this.tolerance = tolerance;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        meterRegistry.gauge("http.server.requests.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("http.server.requests.concurrency.in-flight", inFlight);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        int current = inFlight.incrementAndGet();
+        if (current > limit) {
+            inFlight.decrementAndGet();
+            meterRegistry.counter("http.server.requests.rejected", "reason", "overload", "class", "all").increment();
+            throw new TooManyRequestsException("Server is busy, retry shortly", 1);
+        }
+        peakInFlight.accumulateAndGet(current, Math::max);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        record(System.nanoTime() - (Long) start);
+    }
+
+    void record(long latencyNanos) {
+        long index = recorded.getAndIncrement();
+        latencies.set((int) (index % SAMPLE_SIZE), latencyNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${load-shedding.adjust-interval-ms:1000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        long total = recorded.get();
+        int samples = (int) Math.min(total - recordedAtLastAdjust, SAMPLE_SIZE);
+        recordedAtLastAdjust = total;
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (samples < MIN_SAMPLES) {
+            return;
+        }
+
+        long[] window = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            window[i] = latencies.get((int) ((total - 1 - i) % SAMPLE_SIZE));
+        }
+        Arrays.sort(window);
+        long p99 = window[(int) Math.ceil(samples * 0.99) - 1];
+
+        long baseline = baselineNanos == 0 ? p99 : baselineNanos;
+        long threshold = Math.max(latencyFloorNanos, (long) (baseline * tolerance));
+        baselineNanos = Math.min(p99, baseline + Math.max(1, baseline / 100));
+
+        int previous = limit;
+        boolean nearLimit = peak >= previous * NEAR_LIMIT;
+        if (p99 > threshold) {
+            if (nearLimit) {
+                double gradient = Math.max(backoffRatio, (double) threshold / p99);
+                limit = Math.max(minLimit, Math.min(previous - 1, (int) (previous * gradient)));
+            }
+        } else if (peak * 2 >= previous || previous < initialLimit) {
+            limit = Math.min(maxLimit, previous + Math.max(1, previous / 10));
+        }
+        if (limit != previous) {
+            log.debug("Concurrency limit {} -> {} (p99 {} ms, threshold {} ms, peak in-flight {})",
+                    previous, limit, p99 / 1_000_000, threshold / 1_000_000, peak);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.productreview.ratelimit;
+
+import java.util.Set;
+
+/**
+ * Endpoints that are rate limited per user, each with its own bucket
+ * (rate-limit.&lt;key&gt;.capacity / refill-per-second). Matched on HTTP method
+ * and the mapped URI template.
+ */
+public enum EndpointClass {
+    VOTE("vote", Set.of("PUT /api/products/reviews/{reviewId}/helpful")),
+    AI_CHAT("ai-chat", Set.of("POST /api/products/{id}/chat")),
+    NOTIFICATION_WRITE("notification-write", Set.of(
+            "POST /api/user/notifications",
+            "POST /api/user/notifications/batch"));
+
+    private final String key;
+    private final Set<String> endpoints;
+
+    EndpointClass(String key, Set<String> endpoints) {
+        this.key = key;
+        this.endpoints = endpoints;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static EndpointClass match(String method, String uriTemplate) {
+        String endpoint = method + " " + uriTemplate;
+        for (EndpointClass endpointClass : values()) {
+            if (endpointClass.endpoints.contains(endpoint)) {
+                return endpointClass;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productreview.ratelimit;
+
+import com.example.productreview.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token buckets for the write and AI endpoints (see EndpointClass),
+ * keyed by X-User-ID. X-User-ID is client-supplied, so every call also draws
+ * from a bucket for the client address, per-address-multiplier times larger
+ * to leave room for users sharing a NAT. Rotating the header therefore
+ * doesn't buy a fresh allowance.
+ * Buckets live in a bounded cache and are dropped once a user goes idle,
+ * which is when they would be full again anyway.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final boolean enabled;
+    private final double perAddressMultiplier;
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitInterceptor(Environment environment,
+                                MeterRegistry meterRegistry,
+                                @Value("${rate-limit.enabled:true}") boolean enabled,
+                                @Value("${rate-limit.max-buckets:100000}") long maxBuckets,
+                                @Value("${rate-limit.idle-expiry:10m}") Duration idleExpiry,
+                                @Value("${rate-limit.per-address-multiplier:4}") double perAddressMultiplier) {
+        this.enabled = enabled;
+        this.perAddressMultiplier = perAddressMultiplier;
+        this.meterRegistry = meterRegistry;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "rate-limit." + endpointClass.key() + ".";
+            limits.put(endpointClass, new Limit(
+                    environment.getProperty(prefix + "capacity", Integer.class, 20),
+                    environment.getProperty(prefix + "refill-per-second", Double.class, 1.0)));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        EndpointClass endpointClass = pattern != null ? EndpointClass.match(request.getMethod(), pattern.toString()) : null;
+        if (endpointClass == null) {
+            return true;
+        }
+
+        Limit limit = limits.get(endpointClass);
+        long now = System.nanoTime();
+        long waitNanos = acquire(endpointClass.key() + ":addr:" + request.getRemoteAddr(),
+                (int) Math.ceil(limit.capacity() * perAddressMultiplier), limit.refillPerSecond() * perAddressMultiplier, now);
+        String userId = request.getHeader("X-User-ID");
+        if (waitNanos == 0 && userId != null && !userId.isBlank()) {
+            waitNanos = acquire(endpointClass.key() + ":user:" + userId, limit.capacity(), limit.refillPerSecond(), now);
+        }
+        if (waitNanos > 0) {
+            meterRegistry.counter("http.server.requests.rejected", "reason", "rate-limit", "class", endpointClass.key()).increment();
+            throw new TooManyRequestsException("Too many requests, slow down",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+        }
+        return true;
+    }
+
+    private long acquire(String key, int capacity, double refillPerSecond, long now) {
+        return buckets.get(key, k -> new TokenBucket(capacity, refillPerSecond, now)).tryAcquire(now);
+    }
+
+    private record Limit(int capacity, double refillPerSecond) {
+    }
+}
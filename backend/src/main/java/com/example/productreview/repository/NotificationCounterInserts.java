@@ -0,0 +1,12 @@
+package com.example.productreview.repository;
+
+/**
+ * Summary row creation for NotificationCounterRepository. A plain JDBC insert,
+ * so losing the race against another transaction's first write is a 0 rather
+ * than an exception that marks the surrounding JPA transaction rollback-only.
+ */
+public interface NotificationCounterInserts {
+
+    // 1 if the row was created, 0 if it already exists (including a concurrent insert)
+    int insertIfAbsent(String userId, long unreadCount);
+}
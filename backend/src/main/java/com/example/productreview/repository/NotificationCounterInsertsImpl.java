@@ -0,0 +1,24 @@
+package com.example.productreview.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class NotificationCounterInsertsImpl implements NotificationCounterInserts {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationCounterInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIfAbsent(String userId, long unreadCount) {
+        try {
+            return jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) SELECT ?, ? " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM notification_counters WHERE user_id = ?)", userId, unreadCount, userId);
+        } catch (DuplicateKeyException e) {
+            // NOT EXISTS can't see a row another transaction is inserting; the primary key can
+            return 0;
+        }
+    }
+}
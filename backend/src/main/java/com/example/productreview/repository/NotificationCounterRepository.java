@@ -0,0 +1,34 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.model.NotificationCounter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, String>, NotificationCounterInserts {
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = GREATEST(unread_count + :delta, 0) WHERE user_id = :userId",
+            nativeQuery = true)
+    int adjust(@Param("userId") String userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = 0 WHERE user_id = :userId", nativeQuery = true)
+    int reset(@Param("userId") String userId);
+
+    // Reconciliation: recount from the inbox, in user id batches
+    @Query("SELECT c.userId FROM NotificationCounter c WHERE c.userId > :afterUserId ORDER BY c.userId")
+    List<String> findUserIdsAfter(@Param("afterUserId") String afterUserId, Pageable limit);
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters c SET unread_count = " +
+            "(SELECT COUNT(*) FROM notifications n WHERE n.user_id = c.user_id AND n.is_read = FALSE) " +
+            "WHERE c.user_id IN (:userIds)",
+            nativeQuery = true)
+    int recount(@Param("userIds") Collection<String> userIds);
+}
@@ -1,10 +1,57 @@
 package com.example.productreview.repository;
 
+import com.example.productreview.dto.NotificationDTO;
 import com.example.productreview.model.AppNotification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<AppNotification, Long> {
+
+    String NOTIFICATION_DTO_SELECT =
+            "SELECT new com.example.productreview.dto.NotificationDTO(n.id, n.title, n.message, n.isRead, n.createdAt, n.productId) " +
+            "FROM AppNotification n WHERE n.userId = :userId";
+
     List<AppNotification> findByUserIdOrderByCreatedAtDesc(String userId);
     long countByUserIdAndIsReadFalse(String userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE AppNotification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") String userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM AppNotification n WHERE n.userId = :userId")
+    int deleteAllByUserId(@Param("userId") String userId);
+
+    // Keyset pagination over (user_id, created_at), newest first
+    @Query(NOTIFICATION_DTO_SELECT + " ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findLatestByUserId(@Param("userId") String userId, Pageable limit);
+
+    @Query(NOTIFICATION_DTO_SELECT +
+            " AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))" +
+            " ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationDTO> findByUserIdBefore(@Param("userId") String userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable limit);
+
+    // Push stream: notifications newer than the last one a stream has seen
+    @Query(NOTIFICATION_DTO_SELECT + " AND n.id > :afterId ORDER BY n.id")
+    List<NotificationDTO> findByUserIdAfterId(@Param("userId") String userId, @Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT COALESCE(MAX(n.id), 0) FROM AppNotification n WHERE n.userId = :userId")
+    long findMaxIdByUserId(@Param("userId") String userId);
+
+    // Retention: read notifications older than the cutoff, in id batches
+    @Query("SELECT n.id FROM AppNotification n WHERE n.isRead = true AND n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM AppNotification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -34,6 +35,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.reviewCount), AVG(p.averageRating) FROM Product p WHERE :category MEMBER OF p.categories AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     Object[] getCategoryAndSearchStats(@Param("category") String category, @Param("name") String name);
 
-    // ✨ New method for paged find by IDs
-    Page<Product> findByIdIn(List<Long> ids, Pageable pageable);
+    // ✨ Categories for a page of products in one query (rows of productId, category)
+    @Query("SELECT p.id, c FROM Product p JOIN p.categories c WHERE p.id IN :ids")
+    List<Object[]> findCategoriesByProductIds(@Param("ids") Collection<Long> ids);
 }
@@ -4,6 +4,7 @@ import com.example.productreview.model.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,4 +26,17 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.product.id = :productId GROUP BY r.rating")
     List<Object[]> findRatingCountsByProductId(@Param("productId") Long productId);
+
+    // Projection used to build the in-memory "most helpful" ranking
+    @Query("SELECT r.id, r.helpfulCount, r.createdAt FROM Review r WHERE r.product.id = :productId")
+    List<Object[]> findHelpfulRankingByProductId(@Param("productId") Long productId);
+
+    // ✨ Atomic helpful-count updates (no read-modify-write in Java)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.helpfulCount = COALESCE(r.helpfulCount, 0) + 1 WHERE r.id = :reviewId")
+    int incrementHelpfulCount(@Param("reviewId") Long reviewId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.helpfulCount = r.helpfulCount - 1 WHERE r.id = :reviewId AND r.helpfulCount > 0")
+    int decrementHelpfulCount(@Param("reviewId") Long reviewId);
 }
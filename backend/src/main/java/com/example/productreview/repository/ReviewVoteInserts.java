@@ -0,0 +1,12 @@
+package com.example.productreview.repository;
+
+/**
+ * Vote insert for ReviewVoteRepository. A plain JDBC insert, so a racing
+ * duplicate vote is a no-op instead of an exception that rolls back (and
+ * fails) the whole vote request.
+ */
+public interface ReviewVoteInserts {
+
+    // 1 if the vote was recorded, 0 if the user had already voted (including a concurrent request)
+    int insertVoteIfAbsent(String userId, Long reviewId);
+}
@@ -0,0 +1,25 @@
+package com.example.productreview.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class ReviewVoteInsertsImpl implements ReviewVoteInserts {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReviewVoteInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertVoteIfAbsent(String userId, Long reviewId) {
+        try {
+            return jdbcTemplate.update("INSERT INTO review_votes (user_id, review_id) SELECT ?, ? " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM review_votes WHERE user_id = ? AND review_id = ?)",
+                    userId, reviewId, userId, reviewId);
+        } catch (DuplicateKeyException e) {
+            // NOT EXISTS can't see a vote another transaction is inserting; the unique key can
+            return 0;
+        }
+    }
+}
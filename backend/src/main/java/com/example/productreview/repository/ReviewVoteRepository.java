@@ -2,10 +2,22 @@ package com.example.productreview.repository;
 
 import com.example.productreview.model.ReviewVote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 import java.util.List;
 
-public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
+public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long>, ReviewVoteInserts {
     Optional<ReviewVote> findByUserIdAndReviewId(String userId, Long reviewId);
     List<ReviewVote> findByUserId(String userId);
+    long countByReviewId(Long reviewId);
+
+    @Query("SELECT v.reviewId FROM ReviewVote v WHERE v.userId = :userId")
+    List<Long> findReviewIdsByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM ReviewVote v WHERE v.userId = :userId AND v.reviewId = :reviewId")
+    int deleteVote(@Param("userId") String userId, @Param("reviewId") Long reviewId);
 }
@@ -0,0 +1,12 @@
+package com.example.productreview.repository;
+
+/**
+ * Wishlist insert for WishlistRepository. A plain JDBC insert, so a racing
+ * duplicate add (double tap, sync overlapping a toggle) is a no-op instead of
+ * an exception that rolls back the whole request.
+ */
+public interface WishlistInserts {
+
+    // 1 if the product was added, 0 if it was already on the wishlist (including a concurrent add)
+    int insertIfAbsent(String userId, Long productId);
+}
@@ -0,0 +1,26 @@
+package com.example.productreview.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class WishlistInsertsImpl implements WishlistInserts {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public WishlistInsertsImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIfAbsent(String userId, Long productId) {
+        try {
+            return jdbcTemplate.update("INSERT INTO wishlist_items (user_id, product_id, created_at) " +
+                    "SELECT ?, ?, CURRENT_TIMESTAMP " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM wishlist_items WHERE user_id = ? AND product_id = ?)",
+                    userId, productId, userId, productId);
+        } catch (DuplicateKeyException e) {
+            // NOT EXISTS can't see a row another transaction is inserting; the unique key can
+            return 0;
+        }
+    }
+}
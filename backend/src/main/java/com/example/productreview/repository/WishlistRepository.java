@@ -1,12 +1,53 @@
 package com.example.productreview.repository;
 
+import com.example.productreview.dto.WishlistProductView;
 import com.example.productreview.model.WishlistItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
+public interface WishlistRepository extends JpaRepository<WishlistItem, Long>, WishlistInserts {
     List<WishlistItem> findByUserId(String userId);
     Optional<WishlistItem> findByUserIdAndProductId(String userId, Long productId);
-    void deleteByUserIdAndProductId(String userId, Long productId);
+
+    @Query("SELECT w.productId FROM WishlistItem w WHERE w.userId = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM WishlistItem w WHERE w.userId = :userId AND w.productId = :productId")
+    int deleteByUserIdAndProductId(@Param("userId") String userId, @Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM WishlistItem w WHERE w.userId = :userId AND w.productId IN :productIds")
+    int deleteByUserIdAndProductIdIn(@Param("userId") String userId, @Param("productIds") Collection<Long> productIds);
+
+    // ✨ Wishlist products as one join + projection (no IN list of ids)
+    String WISHLIST_PRODUCT_SELECT = "SELECT w.id AS wishlistItemId, w.createdAt AS addedAt, p.id AS productId, " +
+            "p.name AS name, p.description AS description, p.price AS price, p.imageUrl AS imageUrl, " +
+            "p.averageRating AS averageRating, p.reviewCount AS reviewCount " +
+            "FROM WishlistItem w JOIN Product p ON p.id = w.productId WHERE w.userId = :userId";
+
+    @Query(value = WISHLIST_PRODUCT_SELECT,
+            countQuery = "SELECT COUNT(w) FROM WishlistItem w WHERE w.userId = :userId")
+    Page<WishlistProductView> findWishlistProducts(@Param("userId") String userId, Pageable pageable);
+
+    // Keyset pagination, newest first: first slice and slices after a (createdAt, id) cursor
+    @Query(WISHLIST_PRODUCT_SELECT + " ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistProductView> findLatestWishlistProducts(@Param("userId") String userId, Pageable limit);
+
+    @Query(WISHLIST_PRODUCT_SELECT +
+            " AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id))" +
+            " ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistProductView> findWishlistProductsBefore(@Param("userId") String userId,
+                                                        @Param("createdAt") LocalDateTime createdAt,
+                                                        @Param("id") Long id,
+                                                        Pageable limit);
 }
@@ -1,13 +1,23 @@
 package com.example.productreview.service;
 
+import com.example.productreview.model.ProductSummary;
 import com.example.productreview.model.Review;
+import com.example.productreview.repository.ProductSummaryRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -23,14 +33,20 @@ public class AISummaryService {
     private final String model;
     private final Integer maxTokens;
     private final boolean testMode;
+    private final Duration simulatedLatency;
+    private final ProductSummaryRepository summaryRepository;
 
     public AISummaryService(
             @Value("${openai.api.key:test-key}") String apiKey,
             @Value("${openai.model:gpt-4o-mini}") String model,
-            @Value("${openai.max.tokens:500}") Integer maxTokens) {
+            @Value("${openai.max.tokens:500}") Integer maxTokens,
+            @Value("${openai.simulated-latency:0ms}") Duration simulatedLatency,
+            ProductSummaryRepository summaryRepository) {
         this.apiKey = apiKey;
         this.model = model;
         this.maxTokens = maxTokens;
+        this.simulatedLatency = simulatedLatency;
+        this.summaryRepository = summaryRepository;
         // TEST MODE: If API key is not set or is test key, use mock responses
         this.testMode = apiKey == null || apiKey.isEmpty() || 
                         apiKey.equals("test-key") || 
@@ -46,7 +62,10 @@ public class AISummaryService {
 
     /**
      * Generate AI summary for product reviews
-     * Result is cached for 1 hour based on productId
+     * Result is cached in memory by productId (tier one) and persisted in
+     * product_summaries together with a hash of the reviews (tier two).
+     * A stored summary is reused as long as the review hash still matches,
+     * so only products whose reviews changed are regenerated.
      * 
      * @param productId Product ID
      * @param productName Product name for context
@@ -54,6 +73,7 @@ public class AISummaryService {
      * @return AI-generated summary or null if error/no reviews
      */
     @Cacheable(value = "aiSummaries", key = "#productId")
+    @Timed(value = "ai.summary", extraTags = {"operation", "generate"}, histogram = true)
     public String generateReviewSummary(Long productId, String productName, List<Review> reviews) {
         // Generate summary if there is at least 1 review
         if (reviews == null || reviews.isEmpty()) {
@@ -62,17 +82,32 @@ public class AISummaryService {
         }
 
         try {
+            String reviewHash = computeReviewHash(reviews);
+            Optional<ProductSummary> stored = summaryRepository.findById(productId);
+            if (stored.isPresent() && reviewHash.equals(stored.get().getReviewHash())) {
+                log.info("Reusing stored summary for product {}", productId);
+                return stored.get().getSummary();
+            }
+
+            String summary;
             // TEST MODE: Return mock summary
             if (testMode) {
-                String mockSummary = generateMockSummary(productName, reviews);
-                log.info("📝 Generated MOCK summary for product {}: {} chars", productId, mockSummary.length());
-                return mockSummary;
+                simulateUpstreamCall();
+                summary = generateMockSummary(productName, reviews);
+                log.info("📝 Generated MOCK summary for product {}: {} chars", productId, summary.length());
+            } else {
+                // REAL MODE: Call OpenAI API (requires valid API key and credits)
+                log.error("❌ Real OpenAI API calls not implemented in this version");
+                log.error("❌ Please use TEST MODE or implement OpenAI client");
+                summary = generateMockSummary(productName, reviews);
             }
-            
-            // REAL MODE: Call OpenAI API (requires valid API key and credits)
-            log.error("❌ Real OpenAI API calls not implemented in this version");
-            log.error("❌ Please use TEST MODE or implement OpenAI client");
-            return generateMockSummary(productName, reviews);
+
+            ProductSummary entry = stored.orElseGet(ProductSummary::new);
+            entry.setProductId(productId);
+            entry.setReviewHash(reviewHash);
+            entry.setSummary(summary);
+            summaryRepository.save(entry);
+            return summary;
             
         } catch (Exception e) {
             log.error("Error generating AI summary for product {}: {}", productId, e.getMessage(), e);
@@ -80,6 +115,26 @@ public class AISummaryService {
         }
     }
 
+    /**
+     * Fingerprint of the inputs a summary depends on (review id, rating and comment).
+     * Helpful votes are left out on purpose so voting doesn't trigger regeneration.
+     */
+    String computeReviewHash(List<Review> reviews) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        reviews.stream()
+                .sorted(Comparator.comparing(Review::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(r -> digest.update((r.getId() + ":" + r.getRating() + ":" + r.getComment() + "\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     /**
      * Chat with AI about product reviews
      * @param productId Product ID
@@ -87,11 +142,13 @@ public class AISummaryService {
      * @param reviews List of reviews
      * @return AI response
      */
+    @Timed(value = "ai.summary", extraTags = {"operation", "chat"}, histogram = true)
     public String chatWithReviews(Long productId, String question, List<Review> reviews) {
         if (reviews == null || reviews.isEmpty()) {
             return "I couldn't find any reviews for this product to analyze.";
         }
 
+        simulateUpstreamCall();
         String lowerQuestion = question.toLowerCase();
         
         if (lowerQuestion.contains("how many")) {
@@ -121,11 +178,26 @@ public class AISummaryService {
         return "That's an interesting question! Based on the reviews, customers generally have mixed to positive feelings about this product.";
     }
 
+    /**
+     * Stands in for the blocking OpenAI round trip in test mode, so load tests
+     * see the thread occupancy a real upstream call would cause.
+     */
+    private void simulateUpstreamCall() {
+        if (simulatedLatency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(simulatedLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Generate a mock summary based on review statistics
      * This simulates what ChatGPT would return
      */
-    private String generateMockSummary(String productName, List<Review> reviews) {
+    String generateMockSummary(String productName, List<Review> reviews) {
         // Calculate statistics
         double avgRating = reviews.stream()
                 .mapToInt(Review::getRating)
@@ -183,7 +255,7 @@ public class AISummaryService {
     /**
      * Extract common themes from reviews
      */
-    private String extractCommonThemes(List<Review> reviews, boolean positive) {
+    String extractCommonThemes(List<Review> reviews, boolean positive) {
         // Filter reviews by rating
         List<Review> filtered = reviews.stream()
                 .filter(r -> positive ? r.getRating() >= 4 : r.getRating() <= 2)
@@ -0,0 +1,230 @@
+package com.example.productreview.service;
+
+import com.example.productreview.cache.CacheInvalidation;
+import com.example.productreview.cache.CacheInvalidationBus;
+import com.example.productreview.cache.CacheStatsRegistry;
+import com.example.productreview.cache.LoadTimeStatsCounter;
+import com.example.productreview.repository.ReviewRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory "most helpful" ordering of each product's reviews.
+ *
+ * A product's ranking is built from one projection query the first time it is
+ * requested and then kept current with incremental updates: votes adjust the
+ * review's position by their delta, new reviews are inserted at the bottom.
+ * Deltas are applied after commit, so updates commute and arrive in any order.
+ * Rankings are rebuilt after a while to bound any drift (e.g. votes that
+ * committed while a ranking was being loaded). Other nodes drop their copy of
+ * a changed ranking through the {@link CacheInvalidationBus}.
+ *
+ * Ordered by helpful count, then newest first. Reviews only collect positive
+ * votes, so a Wilson lower bound would rank exactly like the raw count.
+ */
+@Component
+public class HelpfulRankingIndex {
+
+    public static final String CACHE_NAME = "helpfulRankings";
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::helpfulCount).reversed()
+            .thenComparing(Entry::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Entry::reviewId).reversed());
+
+    private final ReviewRepository reviewRepository;
+    private final HelpfulVoteBuffer helpfulVoteBuffer;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<Long, ProductRanking> rankings;
+
+    public HelpfulRankingIndex(ReviewRepository reviewRepository,
+                               HelpfulVoteBuffer helpfulVoteBuffer,
+                               CacheStatsRegistry statsRegistry,
+                               CacheInvalidationBus invalidationBus,
+                               @Value("${reviews.ranking.max-products:1000}") long maxProducts,
+                               @Value("${reviews.ranking.rebuild-after:10m}") Duration rebuildAfter) {
+        this.reviewRepository = reviewRepository;
+        this.helpfulVoteBuffer = helpfulVoteBuffer;
+        this.invalidationBus = invalidationBus;
+        LoadTimeStatsCounter counter = new LoadTimeStatsCounter();
+        this.rankings = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(rebuildAfter)
+                .recordStats(() -> counter)
+                .build();
+        statsRegistry.register(CACHE_NAME, rankings, counter);
+        invalidationBus.register(CACHE_NAME, rankings, Long::valueOf);
+    }
+
+    /**
+     * Review ids for one page of the ranking, most helpful first.
+     */
+    public List<Long> page(Long productId, long offset, int limit) {
+        return ranking(productId).page(offset, limit);
+    }
+
+    public long size(Long productId) {
+        return ranking(productId).size();
+    }
+
+    /**
+     * The given review ids that belong to the product, in the order given.
+     */
+    public List<Long> retainReviews(Long productId, Collection<Long> reviewIds) {
+        return ranking(productId).retain(reviewIds);
+    }
+
+    public void adjustAfterCommit(Long productId, Long reviewId, int delta) {
+        afterCommit(() -> {
+            ProductRanking ranking = rankings.getIfPresent(productId);
+            if (ranking != null) {
+                ranking.adjust(reviewId, delta);
+            }
+            evictOnPeers(productId);
+        });
+    }
+
+    public void addAfterCommit(Long productId, Long reviewId, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            ProductRanking ranking = rankings.getIfPresent(productId);
+            if (ranking != null) {
+                ranking.add(new Entry(reviewId, 0, createdAt));
+            }
+            evictOnPeers(productId);
+        });
+    }
+
+    // Other nodes rebuild the ranking on next use
+    private void evictOnPeers(Long productId) {
+        invalidationBus.publish(CacheInvalidation.evict(CACHE_NAME, productId));
+    }
+
+    private ProductRanking ranking(Long productId) {
+        ProductRanking ranking = rankings.getIfPresent(productId);
+        if (ranking == null) {
+            // Loaded outside the cache so the query doesn't run inside Caffeine's compute
+            ProductRanking loaded = load(productId);
+            ranking = rankings.asMap().putIfAbsent(productId, loaded);
+            if (ranking == null) {
+                ranking = loaded;
+            }
+        }
+        return ranking;
+    }
+
+    private ProductRanking load(Long productId) {
+        ProductRanking ranking = new ProductRanking();
+        for (Object[] row : reviewRepository.findHelpfulRankingByProductId(productId)) {
+            Long reviewId = (Long) row[0];
+            Integer helpfulCount = (Integer) row[1];
+            long count = (helpfulCount != null ? helpfulCount : 0) + helpfulVoteBuffer.pendingDelta(reviewId);
+            ranking.add(new Entry(reviewId, Math.max(0, count), (LocalDateTime) row[2]));
+        }
+        return ranking;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Entry(long reviewId, long helpfulCount, LocalDateTime createdAt) {
+    }
+
+    private static final class ProductRanking {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeSet<Entry> ordered = new TreeSet<>(ORDER);
+        private final Map<Long, Entry> byReview = new HashMap<>();
+
+        void add(Entry entry) {
+            lock.writeLock().lock();
+            try {
+                Entry previous = byReview.put(entry.reviewId(), entry);
+                if (previous != null) {
+                    ordered.remove(previous);
+                }
+                ordered.add(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void adjust(Long reviewId, int delta) {
+            lock.writeLock().lock();
+            try {
+                Entry current = byReview.get(reviewId);
+                if (current == null) {
+                    return;
+                }
+                Entry updated = new Entry(reviewId, Math.max(0, current.helpfulCount() + delta), current.createdAt());
+                ordered.remove(current);
+                ordered.add(updated);
+                byReview.put(reviewId, updated);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> page(long offset, int limit) {
+            lock.readLock().lock();
+            try {
+                List<Long> ids = new ArrayList<>(limit);
+                Iterator<Entry> iterator = ordered.iterator();
+                for (long skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+                    iterator.next();
+                }
+                while (ids.size() < limit && iterator.hasNext()) {
+                    ids.add(iterator.next().reviewId());
+                }
+                return ids;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Long> retain(Collection<Long> reviewIds) {
+            lock.readLock().lock();
+            try {
+                return reviewIds.stream().filter(byReview::containsKey).collect(Collectors.toList());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long size() {
+            lock.readLock().lock();
+            try {
+                return ordered.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.productreview.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind aggregation of helpful-vote counter changes.
+ *
+ * When enabled, the per-review delta of each vote is added to a striped in-memory
+ * counter (LongAdder) and appended to a vote log segment instead of updating
+ * reviews.helpful_count in the request transaction. A scheduler flushes the
+ * accumulated deltas as one JDBC batch, then deletes the log segments it covered.
+ * On startup, segments left behind by a crash are replayed.
+ *
+ * The ids of the covered segments are written to vote_log_applied in the same
+ * transaction as the counter update, so a crash between commit and deleting the
+ * files does not apply them twice. Segment ids are never reused across restarts.
+ *
+ * Reads add {@link #pendingDelta(Long)} to the persisted count. The vote rows
+ * themselves are still written synchronously since the toggle depends on them.
+ */
+@Component
+public class HelpfulVoteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(HelpfulVoteBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "votes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String FLUSH_SQL =
+            "UPDATE reviews SET helpful_count = GREATEST(COALESCE(helpful_count, 0) + ?, 0) WHERE id = ?";
+    private static final String MARK_APPLIED_SQL =
+            "INSERT INTO vote_log_applied (segment_id, applied_at) VALUES (?, CURRENT_TIMESTAMP)";
+
+    private final boolean enabled;
+    private final boolean schemaRecreated;
+    private final Path logDir;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Recording takes the read lock, rotation (swap counters + log segment) the write lock
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private volatile Counters counters = new Counters(new ConcurrentHashMap<>(), Map.of());
+    private final List<Path> unappliedSegments = new ArrayList<>();
+    private List<Path> recoverySegments = List.of();
+    private FileChannel logChannel;
+    private Path currentSegment;
+    private long nextSegmentId;
+
+    public HelpfulVoteBuffer(
+            @Value("${reviews.votes.write-behind.enabled:false}") boolean enabled,
+            @Value("${reviews.votes.write-behind.log-dir:${java.io.tmpdir}/product-review-votes}") String logDir,
+            @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.schemaRecreated = ddlAuto.equals("create") || ddlAuto.equals("create-drop");
+        this.logDir = Paths.get(logDir);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        if (enabled) {
+            openLog();
+            log.info("Helpful votes in write-behind mode, vote log in {}", this.logDir);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a helpful-count change once the surrounding transaction commits,
+     * so a rolled back vote never reaches the counters.
+     */
+    public void recordAfterCommit(Long reviewId, int delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(reviewId, delta);
+                }
+            });
+        } else {
+            record(reviewId, delta);
+        }
+    }
+
+    /**
+     * Buffers a helpful-count change. If the vote log can't be appended to, the
+     * change is applied to the review directly instead: by now the vote row is
+     * committed, so throwing would only lose the delta.
+     */
+    public void record(Long reviewId, int delta) {
+        rotationLock.readLock().lock();
+        try {
+            logChannel.write(ByteBuffer.wrap((reviewId + "," + delta + "\n").getBytes(StandardCharsets.US_ASCII)));
+            counters.pending().computeIfAbsent(reviewId, id -> new LongAdder()).add(delta);
+            return;
+        } catch (IOException e) {
+            log.error("Could not append to vote log, updating review {} directly: {}", reviewId, e.getMessage());
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        try {
+            jdbcTemplate.update(FLUSH_SQL, delta, reviewId);
+        } catch (RuntimeException e) {
+            log.error("Lost helpful-count delta {} for review {}: {}", delta, reviewId, e.getMessage());
+        }
+    }
+
+    /**
+     * Helpful-count change not yet persisted for the review (0 when disabled).
+     */
+    public long pendingDelta(Long reviewId) {
+        if (!enabled) {
+            return 0;
+        }
+        Counters current = counters;
+        LongAdder buffered = current.pending().get(reviewId);
+        LongAdder flushing = current.inFlight().get(reviewId);
+        return (buffered != null ? buffered.sum() : 0) + (flushing != null ? flushing.sum() : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.votes.write-behind.flush-interval-ms:250}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        Map<Long, LongAdder> batch;
+        List<Path> segments;
+        rotationLock.writeLock().lock();
+        try {
+            Counters current = counters;
+            if (current.pending().isEmpty()) {
+                return;
+            }
+            Path closed = currentSegment;
+            rollSegment();
+            unappliedSegments.add(closed);
+            segments = List.copyOf(unappliedSegments);
+            // One volatile write, so readers never see a delta in both maps
+            batch = current.pending();
+            counters = new Counters(new ConcurrentHashMap<>(), batch);
+        } catch (IOException e) {
+            log.error("Could not rotate vote log: {}", e.getMessage());
+            return;
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        Map<Long, Long> deltas = new HashMap<>();
+        batch.forEach((reviewId, adder) -> deltas.put(reviewId, adder.sum()));
+        long start = System.nanoTime();
+        try {
+            apply(deltas, segments);
+        } catch (RuntimeException e) {
+            // Keep the segments on disk and retry the deltas with the next flush
+            log.error("Flushing {} helpful-count deltas failed: {}", deltas.size(), e.getMessage());
+            rotationLock.writeLock().lock();
+            try {
+                Map<Long, LongAdder> merged = new ConcurrentHashMap<>();
+                counters.pending().forEach((reviewId, adder) ->
+                        merged.computeIfAbsent(reviewId, id -> new LongAdder()).add(adder.sum()));
+                deltas.forEach((reviewId, delta) -> merged.computeIfAbsent(reviewId, id -> new LongAdder()).add(delta));
+                counters = new Counters(merged, Map.of());
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            return;
+        }
+        deleteSegments(segments);
+        log.debug("Flushed {} helpful-count deltas in {} µs", deltas.size(), (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Replays vote log segments left over from a previous run. Runs once the
+     * schema is in place; votes recorded meanwhile go to a fresh segment.
+     * Segments marked as applied are only deleted; the rest are added to the
+     * pending deltas and go out with the next flush. A failure is logged and
+     * leaves the segments on disk for the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled || recoverySegments.isEmpty()) {
+            return;
+        }
+        List<Path> segments = recoverySegments;
+        recoverySegments = List.of();
+
+        if (schemaRecreated) {
+            // The counters they refer to were dropped with the old schema
+            log.warn("Discarding {} vote log segments: the schema was created on startup", segments.size());
+            deleteSegments(segments);
+            return;
+        }
+
+        try {
+            Set<Long> applied = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT segment_id FROM vote_log_applied", Long.class));
+            List<Path> done = new ArrayList<>();
+            List<Path> replay = new ArrayList<>();
+            Map<Long, Long> deltas = new HashMap<>();
+            for (Path segment : segments) {
+                if (applied.contains(segmentId(segment))) {
+                    done.add(segment);
+                } else if (read(segment, deltas)) {
+                    replay.add(segment);
+                }
+            }
+            deleteSegments(done);
+
+            rotationLock.writeLock().lock();
+            try {
+                deltas.forEach((reviewId, delta) ->
+                        counters.pending().computeIfAbsent(reviewId, id -> new LongAdder()).add(delta));
+                unappliedSegments.addAll(replay);
+            } finally {
+                rotationLock.writeLock().unlock();
+            }
+            log.info("Recovered {} helpful-count deltas from {} vote log segments, skipped {} already applied",
+                    deltas.size(), replay.size(), done.size());
+        } catch (RuntimeException e) {
+            log.error("Vote log recovery failed, keeping {} segments for the next start: {}",
+                    segments.size(), e.getMessage());
+        }
+    }
+
+    private void apply(Map<Long, Long> deltas, List<Path> segments) {
+        List<Object[]> args = deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .collect(Collectors.toList());
+        List<Object[]> segmentIds = segments.stream()
+                .map(segment -> new Object[]{segmentId(segment)})
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!args.isEmpty()) {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+            }
+            jdbcTemplate.batchUpdate(MARK_APPLIED_SQL, segmentIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // The in-flight deltas are part of the persisted counts from here on
+                    counters = new Counters(counters.pending(), Map.of());
+                }
+            });
+        });
+    }
+
+    private static boolean read(Path segment, Map<Long, Long> deltas) {
+        Map<Long, Long> parsed = new HashMap<>();
+        try (Stream<String> lines = Files.lines(segment, StandardCharsets.US_ASCII)) {
+            lines.map(line -> line.split(","))
+                    .filter(parts -> parts.length == 2)
+                    .forEach(parts -> parsed.merge(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long::sum));
+        } catch (IOException | NumberFormatException | UncheckedIOException e) {
+            log.error("Skipping unreadable vote log segment {}: {}", segment, e.getMessage());
+            return false;
+        }
+        parsed.forEach((reviewId, delta) -> deltas.merge(reviewId, delta, Long::sum));
+        return true;
+    }
+
+    private void openLog() {
+        try {
+            Files.createDirectories(logDir);
+            try (Stream<Path> files = Files.list(logDir)) {
+                recoverySegments = files
+                        .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            // Starting from the clock keeps ids unique even after all segments were deleted,
+            // so a leftover vote_log_applied row can never match a new segment
+            nextSegmentId = Math.max(recoverySegments.stream()
+                    .mapToLong(HelpfulVoteBuffer::segmentId)
+                    .max()
+                    .orElse(0) + 1, System.currentTimeMillis());
+            rollSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open vote log in " + logDir, e);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        if (logChannel != null) {
+            logChannel.close();
+        }
+        currentSegment = logDir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSegmentId++, SEGMENT_SUFFIX));
+        logChannel = FileChannel.open(currentSegment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void deleteSegments(List<Path> segments) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete vote log segment {}: {}", segment, e.getMessage());
+            }
+        }
+        rotationLock.writeLock().lock();
+        try {
+            unappliedSegments.removeAll(segments);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+        try {
+            jdbcTemplate.batchUpdate("DELETE FROM vote_log_applied WHERE segment_id = ?", segments.stream()
+                    .map(segment -> new Object[]{segmentId(segment)})
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // Harmless: ids are not reused, the rows only cost space
+            log.warn("Could not clear applied vote log markers: {}", e.getMessage());
+        }
+    }
+
+    private static long segmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private record Counters(Map<Long, LongAdder> pending, Map<Long, LongAdder> inFlight) {}
+}
@@ -0,0 +1,316 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.NotificationDTO;
+import com.example.productreview.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events push of new notifications and unread-count changes.
+ *
+ * Each open stream is registered per user with the id of the last
+ * notification it was sent. Writers only signal "user X has something new";
+ * the stream then reads notifications with a higher id and sends them with
+ * that id as the SSE event id, so a client reconnecting with Last-Event-ID
+ * resumes exactly where it left off. Idle streams cost no thread (servlet
+ * async), only a registry entry and a heartbeat every few seconds.
+ *
+ * Publishers never write to a socket. Each stream has a small bounded
+ * outbound queue (plus a coalesced "read pending notifications" flag) and at
+ * most one drain task on the push writer pool, so a stream has a single
+ * writer and needs no lock. A stream whose queue overflows, or whose writer
+ * has made no progress for write-timeout (a client that stopped reading), is
+ * dropped, and a writer stuck in that stream's socket write is interrupted.
+ *
+ * Events: "notification" (NotificationDTO), "unread-count" ({"count"}, sent on
+ * connect) and "unread-delta" ({"delta"}).
+ */
+@Component
+public class NotificationPushService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPushService.class);
+
+    static final int MAX_REPLAY = 100;
+
+    private final Map<String, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final NotificationRepository notificationRepository;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+    private final int queueCapacity;
+    private final ExecutorService writerPool;
+
+    public NotificationPushService(NotificationRepository notificationRepository,
+                                   @Value("${notifications.push.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${notifications.push.write-timeout-ms:10000}") long writeTimeoutMs,
+                                   @Value("${notifications.push.writer-threads:4}") int writerThreads,
+                                   @Value("${notifications.push.queue-capacity:64}") int queueCapacity) {
+        this.notificationRepository = notificationRepository;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadCount = new AtomicInteger();
+        // The task queue holds at most one drain per open stream (see Connection.scheduled)
+        this.writerPool = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter connect(String userId, Long lastEventId) {
+        SseEmitter emitter = newEmitter(timeoutMs);
+        long resumeFrom = lastEventId != null ? lastEventId : notificationRepository.findMaxIdByUserId(userId);
+        Connection connection = new Connection(userId, emitter, resumeFrom, queueCapacity);
+
+        connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        connectionCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(userId, connection));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, connection));
+
+        enqueue(connection, SseEmitter.event().name("unread-count")
+                .data(Map.of("count", notificationRepository.countByUserIdAndIsReadFalse(userId))));
+        // Replays anything missed since Last-Event-ID
+        signalPending(connection);
+        return emitter;
+    }
+
+    public boolean isConnected(String userId) {
+        return connections.containsKey(userId);
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    // Sends notifications the user's open streams haven't seen yet
+    public void publishPending(String userId) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            signalPending(connection);
+        }
+    }
+
+    public void publishUnreadDelta(String userId, long delta) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null || delta == 0) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            enqueue(connection, SseEmitter.event().name("unread-delta").data(Map.of("delta", delta)));
+        }
+    }
+
+    public void publishPendingAfterCommit(String userId) {
+        if (isConnected(userId)) {
+            afterCommit(() -> publishPending(userId));
+        }
+    }
+
+    public void publishUnreadDeltaAfterCommit(String userId, long delta) {
+        if (isConnected(userId)) {
+            afterCommit(() -> publishUnreadDelta(userId, delta));
+        }
+    }
+
+    // Keeps proxies from closing idle streams and weeds out dead ones. A stream that already has
+    // a drain scheduled gets no heartbeat (something is about to be written anyway), so a stuck
+    // stream never piles up heartbeats; if it has made no progress for write-timeout it is dropped.
+    @Scheduled(fixedDelayString = "${notifications.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        connections.forEach((userId, userConnections) -> userConnections.forEach(connection -> {
+            if (!connection.scheduled.get()) {
+                enqueue(connection, SseEmitter.event().comment("hb"));
+            } else if (now - connection.lastProgressNanos > writeTimeoutNanos) {
+                drop(connection, new IOException("SSE write made no progress for "
+                        + TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos) + " ms"));
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writerPool.shutdownNow();
+    }
+
+    // Overridden in tests to observe what a stream was sent
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (!connection.outbound.offer(event)) {
+            drop(connection, new IOException("SSE outbound queue full"));
+            return;
+        }
+        schedule(connection);
+    }
+
+    private void signalPending(Connection connection) {
+        connection.pendingRequested = true;
+        schedule(connection);
+    }
+
+    private void schedule(Connection connection) {
+        if (connection.closed.get() || !connection.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        connection.lastProgressNanos = System.nanoTime();
+        try {
+            writerPool.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            connection.scheduled.set(false);
+        }
+    }
+
+    // Runs on the writer pool; Connection.scheduled makes it the stream's only writer
+    private void drain(Connection connection) {
+        connection.writer = Thread.currentThread();
+        try {
+            while (!connection.closed.get()) {
+                SseEmitter.SseEventBuilder event = connection.outbound.poll();
+                if (event != null) {
+                    if (!send(connection, event)) {
+                        return;
+                    }
+                } else if (connection.pendingRequested) {
+                    connection.pendingRequested = false;
+                    if (!sendPending(connection)) {
+                        return;
+                    }
+                } else {
+                    connection.scheduled.set(false);
+                    // Recheck: a publisher may have enqueued after the poll but before the flag was cleared
+                    if ((connection.outbound.isEmpty() && !connection.pendingRequested)
+                            || !connection.scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            }
+        } finally {
+            connection.writer = null;
+            // An interrupt meant for this stream must not leak into the next task on this thread
+            Thread.interrupted();
+        }
+    }
+
+    private boolean sendPending(Connection connection) {
+        List<NotificationDTO> pending;
+        try {
+            pending = notificationRepository.findByUserIdAfterId(
+                    connection.userId, connection.lastEventId, PageRequest.of(0, MAX_REPLAY));
+        } catch (RuntimeException e) {
+            log.warn("Could not read pending notifications for user {}: {}", connection.userId, e.getMessage());
+            return true;
+        }
+        for (NotificationDTO notification : pending) {
+            boolean sent = send(connection, SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name("notification")
+                    .data(notification));
+            if (!sent) {
+                return false;
+            }
+            connection.lastEventId = notification.getId();
+        }
+        return true;
+    }
+
+    // A failed write means the client is gone
+    private boolean send(Connection connection, SseEmitter.SseEventBuilder event) {
+        try {
+            connection.emitter.send(event);
+            connection.lastProgressNanos = System.nanoTime();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            drop(connection, e);
+            return false;
+        }
+    }
+
+    private void drop(Connection connection, Throwable reason) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("Dropping notification stream for user {}: {}", connection.userId, reason.getMessage());
+        remove(connection.userId, connection);
+        connection.outbound.clear();
+        Thread writer = connection.writer;
+        if (writer != null && writer != Thread.currentThread()) {
+            // Frees a pool thread blocked in this stream's socket write
+            writer.interrupt();
+        }
+        connection.emitter.completeWithError(reason);
+    }
+
+    private void remove(String userId, Connection connection) {
+        connections.computeIfPresent(userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Connection {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbound;
+        // True while a drain task is queued or running
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean pendingRequested;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long lastProgressNanos;
+        private volatile Thread writer;
+        // Only touched by the drain task
+        private long lastEventId;
+
+        private Connection(String userId, SseEmitter emitter, long lastEventId, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.lastEventId = lastEventId;
+            this.outbound = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.NotificationRequest;
+import com.example.productreview.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded asynchronous write path for bulk notification creation.
+ *
+ * Requests are queued whole or rejected whole: when the queue can't take a
+ * batch, the caller gets a {@link ServiceUnavailableException} (503 with
+ * Retry-After) instead of the queue growing without bound. A scheduled flush
+ * drains up to batch-size entries at a time into one JDBC batch insert plus
+ * one batched unread-counter update, in a single transaction, then signals
+ * push streams. Delivery is at most once; a failed flush is logged and counted.
+ *
+ * On shutdown the queue stops accepting batches and flushes whatever is still
+ * queued, so an accepted (202) request isn't lost to a normal restart.
+ */
+@Component
+public class NotificationWriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationWriteQueue.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, title, message, is_read, created_at, product_id) VALUES (?, ?, ?, FALSE, ?, ?)";
+    private static final String COUNTER_SQL =
+            "UPDATE notification_counters SET unread_count = unread_count + ? WHERE user_id = ?";
+
+    private final BlockingQueue<NotificationRequest> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationPushService pushService;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile boolean stopped;
+
+    public NotificationWriteQueue(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  UnreadCounterService unreadCounterService,
+                                  NotificationPushService pushService,
+                                  @Value("${notifications.write-queue.capacity:20000}") int capacity,
+                                  @Value("${notifications.write-queue.batch-size:500}") int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounterService = unreadCounterService;
+        this.pushService = pushService;
+    }
+
+    // All or nothing, so a rejected request can simply be retried
+    public synchronized void enqueueAll(List<NotificationRequest> requests) {
+        if (stopped) {
+            rejected.add(requests.size());
+            throw new ServiceUnavailableException("Notification queue is shutting down, retry later", 1);
+        }
+        if (queue.remainingCapacity() < requests.size()) {
+            rejected.add(requests.size());
+            throw new ServiceUnavailableException("Notification queue is full, retry later", 1);
+        }
+        queue.addAll(requests);
+        accepted.add(requests.size());
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.write-queue.flush-interval-ms:100}")
+    public void flush() {
+        List<NotificationRequest> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // Runs before the DataSource is closed; synchronized with enqueueAll so nothing lands after the last flush
+    @PreDestroy
+    public void drain() {
+        synchronized (this) {
+            stopped = true;
+        }
+        int remaining = queue.size();
+        if (remaining > 0) {
+            log.info("Flushing {} queued notifications before shutdown", remaining);
+        }
+        flush();
+    }
+
+    private void writeBatch(List<NotificationRequest> batch) {
+        long start = System.nanoTime();
+        Map<String, Integer> perUser = new LinkedHashMap<>();
+        batch.forEach(request -> perUser.merge(request.getUserId(), 1, Integer::sum));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, request) -> {
+                    ps.setString(1, request.getUserId());
+                    ps.setString(2, request.getTitle());
+                    ps.setString(3, request.getMessage());
+                    ps.setTimestamp(4, now);
+                    if (request.getProductId() != null) {
+                        ps.setLong(5, request.getProductId());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                });
+                jdbcTemplate.batchUpdate(COUNTER_SQL, new ArrayList<>(perUser.entrySet()), perUser.size(), (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setString(2, entry.getKey());
+                });
+            });
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failed.add(batch.size());
+            log.error("Failed to write {} queued notifications", batch.size(), e);
+            return;
+        } finally {
+            recordFlush(System.nanoTime() - start);
+        }
+
+        perUser.forEach((userId, count) -> {
+            unreadCounterService.applyCommitted(userId, count);
+            if (pushService.isConnected(userId)) {
+                pushService.publishPending(userId);
+            }
+        });
+    }
+
+    private void recordFlush(long nanos) {
+        flushes.increment();
+        flushNanos.add(nanos);
+        lastFlushNanos = nanos;
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Map<String, Object> snapshot() {
+        long flushCount = flushes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("depth", queue.size());
+        stats.put("capacity", capacity);
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("written", written.sum());
+        stats.put("failed", failed.sum());
+        stats.put("flushCount", flushCount);
+        stats.put("lastFlushMs", toMillis(lastFlushNanos));
+        stats.put("averageFlushMs", flushCount == 0 ? 0.0 : toMillis(flushNanos.sum() / flushCount));
+        stats.put("maxFlushMs", toMillis(maxFlushNanos.get()));
+        return stats;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.productreview.service;
+
+import com.example.productreview.config.CacheConfig;
+import com.example.productreview.datasource.ReadWriteRoutingDataSource;
+import com.example.productreview.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Product detail responses kept as ready-to-write UTF-8 JSON (and a gzipped
+ * copy for larger payloads), so a hot product is built and serialized once
+ * per change instead of once per request. Lives in the productDetailJson
+ * cache, which addReview evicts together with aiSummaries.
+ *
+ * A miss is built outside the cache (the build may wait on the DB and the AI
+ * summary) and concurrent misses for the same product share one build. While
+ * it runs, the entry holds a BUILDING marker and the result only replaces that
+ * marker: an eviction that lands mid-build (a review committed after the build
+ * read the product) removes the marker, so the stale result is returned once
+ * but never cached.
+ */
+@Component
+public class ProductDetailJsonCache {
+
+    // Placeholder entry while a build runs (weight 0, never served)
+    private static final EncodedJson BUILDING = new EncodedJson(new byte[0], null, "");
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final boolean gzip;
+    private final int gzipMinBytes;
+    private final Map<Long, CompletableFuture<EncodedJson>> builds = new ConcurrentHashMap<>();
+
+    public ProductDetailJsonCache(ProductService productService,
+                                  ObjectMapper objectMapper,
+                                  CacheManager cacheManager,
+                                  @Value("${cache.product-detail-json.gzip:true}") boolean gzip,
+                                  @Value("${cache.product-detail-json.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.gzip = gzip;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    public EncodedJson get(Long productId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_DETAIL_JSON);
+        EncodedJson cached = cache.get(productId, EncodedJson.class);
+        if (cached != null && cached != BUILDING) {
+            return cached;
+        }
+
+        CompletableFuture<EncodedJson> build = new CompletableFuture<>();
+        CompletableFuture<EncodedJson> running = builds.putIfAbsent(productId, build);
+        if (running != null) {
+            return await(running);
+        }
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        entries.put(productId, BUILDING);
+        // Repository reads default to read-only transactions, which would otherwise go to the replica
+        ReadWriteRoutingDataSource.bindPrimaryReads();
+        try {
+            EncodedJson built = encode(productService.getProductDTOById(productId));
+            entries.replace(productId, BUILDING, built);
+            build.complete(built);
+            return built;
+        } catch (RuntimeException e) {
+            build.completeExceptionally(e);
+            throw e;
+        } finally {
+            ReadWriteRoutingDataSource.clearPrimaryReads();
+            entries.remove(productId, BUILDING);
+            builds.remove(productId, build);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> entries(Cache cache) {
+        return ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache()).asMap();
+    }
+
+    private static EncodedJson await(CompletableFuture<EncodedJson> build) {
+        try {
+            return build.join();
+        } catch (CompletionException e) {
+            // Keep "Product not found" and friends as they are
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    EncodedJson encode(ProductDTO product) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+        byte[] gzipped = gzip && body.length >= gzipMinBytes ? gzip(body) : null;
+        return new EncodedJson(body, gzipped, etag(body));
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 3);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Weak: the identity and gzip encodings share it
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record EncodedJson(byte[] body, byte[] gzipped, String etag) {
+
+        // Cache weight in bytes
+        public int weight() {
+            return body.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.productreview.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +28,11 @@ public interface ProductService {
     
     List<Long> getUserVotedReviewIds(String userId);
 
+    // Voted ids limited to the given reviews / to one product's reviews
+    List<Long> getUserVotedReviewIds(String userId, Collection<Long> reviewIds);
+
+    List<Long> getUserVotedReviewIdsForProduct(String userId, Long productId);
+
     String chatAboutProduct(Long productId, String question);
     
     // ✨ NEW: Get global statistics for hero section (supports filtering)
@@ -1,25 +1,34 @@
 package com.example.productreview.service;
 
+import com.example.productreview.cache.LongIdSet;
+import com.example.productreview.cache.UserSessionCache;
 import com.example.productreview.dto.ProductDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.event.ProductChangedEvent;
 import com.example.productreview.model.Product;
 import com.example.productreview.model.Review;
-import com.example.productreview.model.ReviewVote;
 import com.example.productreview.repository.ProductRepository;
 import com.example.productreview.repository.ReviewRepository;
 import com.example.productreview.repository.ReviewVoteRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,18 +40,33 @@ public class ProductServiceImpl implements ProductService {
     private final ReviewRepository reviewRepository;
     private final ReviewVoteRepository reviewVoteRepository;
     private final AISummaryService aiSummaryService;
+    private final HelpfulVoteBuffer helpfulVoteBuffer;
+    private final UserSessionCache userSessionCache;
+    private final HelpfulRankingIndex helpfulRankingIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductServiceImpl(ProductRepository productRepository, 
                               ReviewRepository reviewRepository, 
                               ReviewVoteRepository reviewVoteRepository,
-                              AISummaryService aiSummaryService) {
+                              AISummaryService aiSummaryService,
+                              HelpfulVoteBuffer helpfulVoteBuffer,
+                              UserSessionCache userSessionCache,
+                              HelpfulRankingIndex helpfulRankingIndex,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.reviewRepository = reviewRepository;
         this.reviewVoteRepository = reviewVoteRepository;
         this.aiSummaryService = aiSummaryService;
+        this.helpfulVoteBuffer = helpfulVoteBuffer;
+        this.userSessionCache = userSessionCache;
+        this.helpfulRankingIndex = helpfulRankingIndex;
+        this.eventPublisher = eventPublisher;
     }
 
+    // sync = true loads inside Caffeine's compute: one query per key on a miss, pinned on virtual threads (see application-vthreads.properties)
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "productListings", key = "T(com.example.productreview.cache.CacheKeys).listing(#category, #search, #pageable)", sync = true)
     public Page<ProductDTO> getAllProducts(String category, String search, Pageable pageable) {
         boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
         boolean hasSearch = search != null && !search.trim().isEmpty();
@@ -73,6 +97,9 @@ public class ProductServiceImpl implements ProductService {
         return products.map(this::convertToProductDTO);
     }
 
+    // No surrounding transaction on purpose: the AI summary call can take seconds and mustn't hold a connection,
+    // and the summary it stores commits on its own. Callers bind primary reads (see ProductDetailJsonCache),
+    // so the reads here and the summary's reviews come from the primary, not a lagging replica.
     @Override
     public ProductDTO getProductDTOById(Long id) {
         Product product = getProductById(id);
@@ -110,12 +137,14 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Product getProductById(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ReviewDTO> getReviewsByProductId(Long productId) {
         return reviewRepository.findByProductId(productId).stream()
                 .map(this::convertToReviewDTO)
@@ -123,18 +152,45 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<ReviewDTO> getReviewsByProductId(Long productId, Integer rating, Pageable pageable) {
         if (rating != null) {
             return reviewRepository.findByProductIdAndRating(productId, rating, pageable)
                     .map(this::convertToReviewDTO);
         }
+        if (isMostHelpfulFirst(pageable.getSort())) {
+            return getMostHelpfulReviews(productId, pageable);
+        }
         return reviewRepository.findByProductId(productId, pageable)
                 .map(this::convertToReviewDTO);
     }
 
+    // "Most helpful" pages come from the maintained ranking instead of sorting all reviews per request
+    private Page<ReviewDTO> getMostHelpfulReviews(Long productId, Pageable pageable) {
+        List<Long> ids = helpfulRankingIndex.page(productId, pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Review> reviews = reviewRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Review::getId, Function.identity()));
+        List<ReviewDTO> content = ids.stream()
+                .map(reviews::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToReviewDTO)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, helpfulRankingIndex.size(productId));
+    }
+
+    private boolean isMostHelpfulFirst(Sort sort) {
+        Sort.Order order = sort.getOrderFor("helpfulCount");
+        return order != null && order.isDescending() && sort.stream().count() == 1;
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = "aiSummaries", key = "#productId")
+    @Caching(evict = {
+            @CacheEvict(value = "aiSummaries", key = "#productId"),
+            @CacheEvict(value = "productDetailJson", key = "#productId"),
+            @CacheEvict(value = "globalStats", allEntries = true),
+            @CacheEvict(value = "productListings", allEntries = true)
+    })
     public ReviewDTO addReview(Long productId, ReviewDTO reviewDTO) {
         Product product = getProductById(productId);
 
@@ -147,6 +203,7 @@ public class ProductServiceImpl implements ProductService {
 
         Review savedReview = reviewRepository.save(review);
         updateProductStats(product);
+        helpfulRankingIndex.addAfterCommit(productId, savedReview.getId(), savedReview.getCreatedAt());
 
         return convertToReviewDTO(savedReview);
     }
@@ -154,38 +211,70 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ReviewDTO markReviewAsHelpful(Long reviewId, String userId) {
-        Review review = reviewRepository.findById(reviewId)
-                .orElseThrow(() -> new RuntimeException("Review not found"));
-
-        if (review.getHelpfulCount() == null) {
-            review.setHelpfulCount(0);
+        if (!reviewRepository.existsById(reviewId)) {
+            throw new RuntimeException("Review not found");
         }
 
+        // Single-statement updates: concurrent votes never overwrite each other's counts,
+        // and the unique (user_id, review_id) key keeps a user's vote idempotent
+        int delta = 0;
         if (userId != null) {
-            Optional<ReviewVote> existingVote = reviewVoteRepository.findByUserIdAndReviewId(userId, reviewId);
-            
-            if (existingVote.isPresent()) {
-                reviewVoteRepository.delete(existingVote.get());
-                if (review.getHelpfulCount() > 0) {
-                    review.setHelpfulCount(review.getHelpfulCount() - 1);
-                }
-            } else {
-                reviewVoteRepository.save(new ReviewVote(userId, reviewId));
-                review.setHelpfulCount(review.getHelpfulCount() + 1);
+            if (reviewVoteRepository.deleteVote(userId, reviewId) > 0) {
+                delta = -1;
+            } else if (reviewVoteRepository.insertVoteIfAbsent(userId, reviewId) > 0) {
+                delta = 1;
             }
         } else {
-            review.setHelpfulCount(review.getHelpfulCount() + 1);
+            delta = 1;
         }
-        
-        Review savedReview = reviewRepository.save(review);
-        return convertToReviewDTO(savedReview);
+        if (delta != 0) {
+            adjustHelpfulCount(reviewId, delta);
+        }
+        if (userId != null && delta != 0) {
+            boolean voted = delta > 0;
+            userSessionCache.updateVotedReviewsAfterCommit(userId,
+                    ids -> voted ? ids.with(reviewId) : ids.without(reviewId));
+        }
+
+        Review review = reviewRepository.findById(reviewId)
+                .orElseThrow(() -> new RuntimeException("Review not found"));
+        if (delta != 0) {
+            helpfulRankingIndex.adjustAfterCommit(review.getProduct().getId(), reviewId, delta);
+        }
+        ReviewDTO reviewDTO = convertToReviewDTO(review);
+        if (helpfulVoteBuffer.isEnabled()) {
+            // The buffer only sees this vote after commit, so include it here
+            reviewDTO.setHelpfulCount(Math.max(0, reviewDTO.getHelpfulCount() + delta));
+        }
+        return reviewDTO;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<Long> getUserVotedReviewIds(String userId) {
-        return reviewVoteRepository.findByUserId(userId).stream()
-                .map(ReviewVote::getReviewId)
-                .collect(Collectors.toList());
+        return votedReviewIds(userId).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getUserVotedReviewIds(String userId, Collection<Long> reviewIds) {
+        return votedReviewIds(userId).retain(reviewIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getUserVotedReviewIdsForProduct(String userId, Long productId) {
+        // Answered from memory: the user's cached votes, narrowed to the product's reviews in its ranking
+        LongIdSet voted = votedReviewIds(userId);
+        if (voted.isEmpty()) {
+            return List.of();
+        }
+        return helpfulRankingIndex.retainReviews(productId, voted.toList());
+    }
+
+    private LongIdSet votedReviewIds(String userId) {
+        return userSessionCache.votedReviews(userId,
+                id -> LongIdSet.of(reviewVoteRepository.findReviewIdsByUserId(id)));
     }
     
     @Override
@@ -196,7 +285,15 @@ public class ProductServiceImpl implements ProductService {
     
     // ✨ NEW: Get global statistics from database (supports filtering)
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "globalStats", key = "T(com.example.productreview.cache.CacheKeys).stats(#category, #search)", sync = true)
     public Map<String, Object> getGlobalStats(String category, String search) {
+        return computeGlobalStats(category, search);
+    }
+
+    // Uncached computation, also used by the globalStats refresh loader (see CacheConfig)
+    @Transactional(readOnly = true)
+    public Map<String, Object> computeGlobalStats(String category, String search) {
         boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
         boolean hasSearch = search != null && !search.trim().isEmpty();
         
@@ -256,24 +353,45 @@ public class ProductServiceImpl implements ProductService {
                 .average()
                 .orElse(0.0);
 
+        Double oldRating = product.getAverageRating();
+        Double newRating = Math.round(average * 10.0) / 10.0;
         product.setReviewCount(count);
-        product.setAverageRating(Math.round(average * 10.0) / 10.0);
+        product.setAverageRating(newRating);
         productRepository.save(product);
+
+        // Wishlist notifications fan out after commit
+        if (!newRating.equals(oldRating)) {
+            eventPublisher.publishEvent(ProductChangedEvent.ratingChanged(
+                    product.getId(), product.getName(), product.getPrice(), oldRating, newRating));
+        }
+    }
+
+    // Write-behind mode buffers the change; otherwise it is applied right away
+    private void adjustHelpfulCount(Long reviewId, int delta) {
+        if (helpfulVoteBuffer.isEnabled()) {
+            helpfulVoteBuffer.recordAfterCommit(reviewId, delta);
+        } else if (delta > 0) {
+            reviewRepository.incrementHelpfulCount(reviewId);
+        } else {
+            reviewRepository.decrementHelpfulCount(reviewId);
+        }
     }
 
     private ReviewDTO convertToReviewDTO(Review review) {
+        long helpfulCount = (review.getHelpfulCount() != null ? review.getHelpfulCount() : 0)
+                + helpfulVoteBuffer.pendingDelta(review.getId());
         return new ReviewDTO(
                 review.getId(),
                 review.getReviewerName(),
                 review.getComment(),
                 review.getRating(),
-                review.getHelpfulCount() != null ? review.getHelpfulCount() : 0,
+                (int) Math.max(0, helpfulCount),
                 review.getCreatedAt(),
                 review.getProduct().getId()
         );
     }
 
-    private ProductDTO convertToProductDTO(Product product) {
+    ProductDTO convertToProductDTO(Product product) {
         return new ProductDTO(
                 product.getId(),
                 product.getName(),
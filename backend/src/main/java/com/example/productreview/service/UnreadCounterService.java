@@ -0,0 +1,188 @@
+package com.example.productreview.service;
+
+import com.example.productreview.cache.CacheInvalidation;
+import com.example.productreview.cache.CacheInvalidationBus;
+import com.example.productreview.cache.CacheStatsRegistry;
+import com.example.productreview.cache.LoadTimeStatsCounter;
+import com.example.productreview.model.NotificationCounter;
+import com.example.productreview.repository.NotificationCounterRepository;
+import com.example.productreview.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Unread notification counts per user, kept in the notification_counters
+ * table and mirrored in memory.
+ *
+ * Writers call {@link #adjust} inside their transaction: the summary row is
+ * updated with the notification change and the in-memory counter (if the user
+ * is cached) follows after commit, along with an unread-delta push. A user
+ * without a summary row gets one on the first write, counted from the inbox;
+ * reads of such a user count the inbox without creating it. A periodic
+ * reconciliation recounts summary rows in batches to fix drift.
+ *
+ * Other nodes drop their copy of a changed counter through the
+ * {@link CacheInvalidationBus}; entries also expire a while after loading,
+ * so a node that missed an eviction doesn't keep a hot user's count forever.
+ */
+@Component
+public class UnreadCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    public static final String UNREAD_COUNTS = "unreadCounts";
+
+    private final Cache<String, AtomicLong> counters;
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationPushService pushService;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileBatchSize;
+
+    public UnreadCounterService(NotificationCounterRepository counterRepository,
+                                NotificationRepository notificationRepository,
+                                NotificationPushService pushService,
+                                PlatformTransactionManager transactionManager,
+                                CacheStatsRegistry statsRegistry,
+                                CacheInvalidationBus invalidationBus,
+                                @Value("${notifications.unread.cache.max-size:10000}") long maxSize,
+                                @Value("${notifications.unread.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                @Value("${notifications.unread.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.counterRepository = counterRepository;
+        this.notificationRepository = notificationRepository;
+        this.pushService = pushService;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileBatchSize = reconcileBatchSize;
+
+        LoadTimeStatsCounter statsCounter = new LoadTimeStatsCounter();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats(() -> statsCounter)
+                .build();
+        statsRegistry.register(UNREAD_COUNTS, counters, statsCounter);
+        invalidationBus.register(UNREAD_COUNTS, counters, Function.identity());
+    }
+
+    public long unreadCount(String userId) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter == null) {
+            // Loaded outside the cache so the query doesn't run inside Caffeine's compute
+            AtomicLong loaded = load(userId);
+            counter = counters.asMap().putIfAbsent(userId, loaded);
+            if (counter == null) {
+                counter = loaded;
+            }
+        }
+        return counter.get();
+    }
+
+    // Must run in the transaction that changed the notifications
+    public void adjust(String userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (counterRepository.adjust(userId, delta) == 0) {
+            // Counted inside this transaction, so the new row already includes the change
+            if (counterRepository.insertIfAbsent(userId, notificationRepository.countByUserIdAndIsReadFalse(userId)) == 0) {
+                // A concurrent first write created the row (without our change) in the meantime
+                counterRepository.adjust(userId, delta);
+            }
+            afterCommit(() -> {
+                counters.invalidate(userId);
+                evictOnPeers(userId);
+            });
+        } else {
+            afterCommit(() -> applyInMemory(userId, delta));
+        }
+        pushService.publishUnreadDeltaAfterCommit(userId, delta);
+    }
+
+    // Must run in the transaction that deleted the user's notifications
+    public void reset(String userId) {
+        long previous = unreadCount(userId);
+        counterRepository.reset(userId);
+        afterCommit(() -> {
+            counters.invalidate(userId);
+            evictOnPeers(userId);
+        });
+        pushService.publishUnreadDeltaAfterCommit(userId, -previous);
+    }
+
+    // For changes whose summary rows were already updated in bulk and committed
+    public void applyCommitted(String userId, long delta) {
+        applyInMemory(userId, delta);
+        pushService.publishUnreadDelta(userId, delta);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread.reconcile-interval-ms:600000}",
+               initialDelayString = "${notifications.unread.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        String afterUserId = "";
+        int batches = 0;
+        while (true) {
+            List<String> userIds = counterRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, reconcileBatchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> counterRepository.recount(userIds));
+            counters.invalidateAll(userIds);
+            afterUserId = userIds.get(userIds.size() - 1);
+            batches++;
+            if (userIds.size() < reconcileBatchSize) {
+                break;
+            }
+        }
+        log.debug("Reconciled unread counters in {} batches", batches);
+    }
+
+    private void applyInMemory(String userId, long delta) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.updateAndGet(count -> Math.max(0, count + delta));
+        }
+        evictOnPeers(userId);
+    }
+
+    // Other nodes reload the count on next use
+    private void evictOnPeers(String userId) {
+        invalidationBus.publish(CacheInvalidation.evict(UNREAD_COUNTS, userId));
+    }
+
+    private AtomicLong load(String userId) {
+        Long count = transactionTemplate.execute(status -> counterRepository.findById(userId)
+                .map(NotificationCounter::getUnreadCount)
+                .orElseGet(() -> notificationRepository.countByUserIdAndIsReadFalse(userId)));
+        return new AtomicLong(count != null ? count : 0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
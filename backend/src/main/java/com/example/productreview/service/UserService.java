@@ -1,19 +1,31 @@
 package com.example.productreview.service;
 
+import com.example.productreview.cache.LongIdSet;
+import com.example.productreview.cache.UserSessionCache;
+import com.example.productreview.dto.Cursor;
+import com.example.productreview.dto.CursorPage;
+import com.example.productreview.dto.NotificationDTO;
+import com.example.productreview.dto.NotificationRequest;
 import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.WishlistProductView;
 import com.example.productreview.model.AppNotification;
-import com.example.productreview.model.WishlistItem;
 import com.example.productreview.repository.NotificationRepository;
 import com.example.productreview.repository.ProductRepository;
 import com.example.productreview.repository.WishlistRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,95 +36,200 @@ public class UserService {
     private final WishlistRepository wishlistRepository;
     private final NotificationRepository notificationRepository;
     private final ProductRepository productRepository; // ✨ Added ProductRepository
+    private final UserSessionCache userSessionCache;
+    private final NotificationPushService notificationPushService;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationWriteQueue notificationWriteQueue;
 
     public UserService(WishlistRepository wishlistRepository, 
                        NotificationRepository notificationRepository,
-                       ProductRepository productRepository) {
+                       ProductRepository productRepository,
+                       UserSessionCache userSessionCache,
+                       NotificationPushService notificationPushService,
+                       UnreadCounterService unreadCounterService,
+                       NotificationWriteQueue notificationWriteQueue) {
         this.wishlistRepository = wishlistRepository;
         this.notificationRepository = notificationRepository;
         this.productRepository = productRepository;
+        this.userSessionCache = userSessionCache;
+        this.notificationPushService = notificationPushService;
+        this.unreadCounterService = unreadCounterService;
+        this.notificationWriteQueue = notificationWriteQueue;
     }
 
     // --- Wishlist ---
 
+    // Served from the per-user session cache, kept current by the writes below
+    @Transactional(readOnly = true)
     public List<Long> getWishlist(String userId) {
-        return wishlistRepository.findByUserId(userId).stream()
-                .map(WishlistItem::getProductId)
-                .collect(Collectors.toList());
+        return userSessionCache.wishlist(userId,
+                id -> LongIdSet.of(wishlistRepository.findProductIdsByUserId(id))).toList();
     }
 
-    // ✨ New method for paged wishlist products
+    // ✨ New method for paged wishlist products (single join query, sorted by date added by default)
+    @Transactional(readOnly = true)
     public Page<ProductDTO> getWishlistProducts(String userId, Pageable pageable) {
-        List<Long> productIds = getWishlist(userId);
-        return productRepository.findByIdIn(productIds, pageable)
-                .map(p -> new ProductDTO(
-                        p.getId(),
-                        p.getName(),
-                        p.getDescription(),
-                        p.getCategories(),
-                        p.getPrice(),
-                        p.getImageUrl(),
-                        p.getAverageRating(),
-                        p.getReviewCount(),
-                        null,
-                        null
-                ));
+        Page<WishlistProductView> rows = wishlistRepository.findWishlistProducts(userId, pageable);
+        Map<Long, Set<String>> categories = findCategories(rows.getContent());
+        return rows.map(row -> toProductDTO(row, categories));
     }
 
-    @Transactional
-    public void toggleWishlist(String userId, Long productId) {
-        var existing = wishlistRepository.findByUserIdAndProductId(userId, productId);
-        if (existing.isPresent()) {
-            wishlistRepository.delete(existing.get());
+    // ✨ Keyset-paginated variant, newest first; "after" is the nextCursor of the previous slice
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> getWishlistProducts(String userId, String after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        List<WishlistProductView> rows;
+        if (after == null || after.isEmpty()) {
+            rows = wishlistRepository.findLatestWishlistProducts(userId, limit);
         } else {
-            wishlistRepository.save(new WishlistItem(userId, productId));
+            Cursor cursor = Cursor.decode(after);
+            rows = wishlistRepository.findWishlistProductsBefore(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        Map<Long, Set<String>> categories = findCategories(rows);
+        List<ProductDTO> items = rows.stream()
+                .map(row -> toProductDTO(row, categories))
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (rows.size() == size) {
+            WishlistProductView last = rows.get(rows.size() - 1);
+            nextCursor = new Cursor(last.getAddedAt(), last.getWishlistItemId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private Map<Long, Set<String>> findCategories(List<WishlistProductView> rows) {
+        Map<Long, Set<String>> categories = new HashMap<>();
+        if (rows.isEmpty()) {
+            return categories;
+        }
+        List<Long> productIds = rows.stream().map(WishlistProductView::getProductId).collect(Collectors.toList());
+        for (Object[] row : productRepository.findCategoriesByProductIds(productIds)) {
+            categories.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]);
         }
+        return categories;
+    }
+
+    private ProductDTO toProductDTO(WishlistProductView row, Map<Long, Set<String>> categories) {
+        return new ProductDTO(
+                row.getProductId(),
+                row.getName(),
+                row.getDescription(),
+                categories.getOrDefault(row.getProductId(), new HashSet<>()),
+                row.getPrice(),
+                row.getImageUrl(),
+                row.getAverageRating(),
+                row.getReviewCount(),
+                null,
+                null
+        );
+    }
+
+    // Delete-or-insert without reading first; returns true when the product was added
+    @Transactional
+    public boolean toggleWishlist(String userId, Long productId) {
+        if (wishlistRepository.deleteByUserIdAndProductId(userId, productId) > 0) {
+            userSessionCache.updateWishlistAfterCommit(userId, ids -> ids.without(productId));
+            return false;
+        }
+        wishlistRepository.insertIfAbsent(userId, productId);
+        userSessionCache.updateWishlistAfterCommit(userId, ids -> ids.with(productId));
+        return true;
+    }
+
+    // ✨ Bulk add/remove used to sync the offline wishlist from the app
+    @Transactional
+    public List<Long> syncWishlist(String userId, Collection<Long> add, Collection<Long> remove) {
+        if (remove != null && !remove.isEmpty()) {
+            wishlistRepository.deleteByUserIdAndProductIdIn(userId, remove);
+        }
+        if (add != null) {
+            add.stream().distinct().forEach(productId -> wishlistRepository.insertIfAbsent(userId, productId));
+        }
+
+        List<Long> productIds = wishlistRepository.findProductIdsByUserId(userId);
+        LongIdSet synced = LongIdSet.of(productIds);
+        userSessionCache.updateWishlistAfterCommit(userId, ids -> synced);
+        return productIds;
     }
 
     // --- Notifications ---
 
-    public List<AppNotification> getNotifications(String userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    // Newest notifications first; "after" is the nextCursor of the previous slice
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDTO> getNotifications(String userId, String after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        List<NotificationDTO> items;
+        if (after == null || after.isEmpty()) {
+            items = notificationRepository.findLatestByUserId(userId, limit);
+        } else {
+            Cursor cursor = Cursor.decode(after);
+            items = notificationRepository.findByUserIdBefore(userId, cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (items.size() == size) {
+            NotificationDTO last = items.get(items.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
     }
     
+    // Maintained counter, no COUNT query per poll
     public long getUnreadCount(String userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounterService.unreadCount(userId);
     }
 
+    @Transactional
     public void markAsRead(Long notificationId) {
         notificationRepository.findById(notificationId).ifPresent(n -> {
-            n.setRead(true);
-            notificationRepository.save(n);
+            if (!n.isRead()) {
+                n.setRead(true);
+                notificationRepository.save(n);
+                unreadCounterService.adjust(n.getUserId(), -1);
+            }
         });
     }
     
-    public void markAllAsRead(String userId) {
-        List<AppNotification> unread = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-                .filter(n -> !n.isRead())
-                .collect(Collectors.toList());
-        
-        unread.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(unread);
+    // Single bulk UPDATE; returns the number of notifications marked
+    @Transactional
+    public int markAllAsRead(String userId) {
+        int updated = notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounterService.adjust(userId, -updated);
+        return updated;
     }
 
+    @Transactional
     public void createNotification(String userId, String title, String message, Long productId) {
         notificationRepository.save(new AppNotification(userId, title, message, productId));
+        unreadCounterService.adjust(userId, 1);
+        notificationPushService.publishPendingAfterCommit(userId);
+    }
+    
+    // Bulk creation goes through the async write queue; throws ServiceUnavailableException when it is full
+    public int createNotifications(List<NotificationRequest> requests) {
+        notificationWriteQueue.enqueueAll(requests);
+        return requests.size();
     }
     
     @Transactional
     public void deleteNotification(Long notificationId) {
         log.info("Deleting notification with ID: {}", notificationId);
-        if (notificationRepository.existsById(notificationId)) {
-            notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresentOrElse(n -> {
+            notificationRepository.delete(n);
+            if (!n.isRead()) {
+                unreadCounterService.adjust(n.getUserId(), -1);
+            }
             log.info("Deleted notification {}", notificationId);
-        } else {
-            log.warn("Notification {} not found for deletion", notificationId);
-        }
+        }, () -> log.warn("Notification {} not found for deletion", notificationId));
     }
     
+    // Single bulk DELETE; returns the number of notifications removed
     @Transactional
-    public void deleteAllNotifications(String userId) {
-        List<AppNotification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        notificationRepository.deleteAll(notifications);
+    public int deleteAllNotifications(String userId) {
+        int deleted = notificationRepository.deleteAllByUserId(userId);
+        unreadCounterService.reset(userId);
+        log.info("Deleted {} notifications for user {}", deleted, userId);
+        return deleted;
     }
 }
@@ -0,0 +1,152 @@
+package com.example.productreview.service;
+
+import com.example.productreview.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns {@link ProductChangedEvent}s into notifications for every user who has
+ * the product on their wishlist.
+ *
+ * Committed events are only queued (coalesced per product, so the queue is
+ * bounded by the number of products); a scheduled drain does the fan-out off
+ * the write path. Wishlisting users are walked in keyset chunks over the
+ * (product_id, id) index. Each chunk is selected, written with one
+ * INSERT ... SELECT and bumped with one unread-counter UPDATE in a single
+ * transaction, both restricted to the selected rows' ids, so a product on
+ * 100k wishlists costs ~300 statements and never holds a long transaction.
+ * Delivery is at most once. Users with an open push stream are signalled
+ * after each chunk commits; that only queues an event on their stream.
+ */
+@Component
+public class WishlistNotificationFanout {
+
+    private static final Logger log = LoggerFactory.getLogger(WishlistNotificationFanout.class);
+
+    private static final String CHUNK_SQL =
+            "SELECT w.id, w.user_id FROM wishlist_items w WHERE w.product_id = ? AND w.id > ? ORDER BY w.id LIMIT ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (user_id, title, message, is_read, created_at, product_id) " +
+            "SELECT w.user_id, ?, ?, FALSE, CURRENT_TIMESTAMP, w.product_id FROM wishlist_items w WHERE w.id IN (%s)";
+    // Users without a counter row yet are counted from the inbox on first read
+    private static final String COUNTER_SQL =
+            "UPDATE notification_counters SET unread_count = unread_count + 1 WHERE user_id IN " +
+            "(SELECT w.user_id FROM wishlist_items w WHERE w.id IN (%s))";
+
+    private final Map<Long, ProductChangedEvent> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationPushService pushService;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public WishlistNotificationFanout(JdbcTemplate jdbcTemplate,
+                                      NotificationPushService pushService,
+                                      UnreadCounterService unreadCounterService,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${notifications.fanout.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pushService = pushService;
+        this.unreadCounterService = unreadCounterService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.merge(event.productId(), event, ProductChangedEvent::followedBy);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.fanout.interval-ms:500}")
+    public void drain() {
+        for (Long productId : pending.keySet()) {
+            ProductChangedEvent event = pending.remove(productId);
+            if (event == null) {
+                continue;
+            }
+            try {
+                int sent = fanOut(event);
+                if (sent > 0) {
+                    log.info("Sent {} wishlist notifications for product {}", sent, productId);
+                }
+            } catch (RuntimeException e) {
+                log.error("Wishlist notification fan-out failed for product {}", productId, e);
+            }
+        }
+    }
+
+    int fanOut(ProductChangedEvent event) {
+        List<String> changes = new ArrayList<>();
+        if (event.priceDropped()) {
+            changes.add(String.format(Locale.ROOT, "dropped from $%.2f to $%.2f", event.oldPrice(), event.newPrice()));
+        }
+        if (event.ratingChanged() && event.newRating() != null) {
+            changes.add(String.format(Locale.ROOT, "is now rated %.1f", event.newRating()));
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        String title = event.priceDropped() ? "Price drop" : "Rating updated";
+        String message = event.productName() + " " + String.join(" and ", changes);
+
+        int sent = 0;
+        long afterId = 0;
+        while (true) {
+            long fromId = afterId;
+            // The rows the counters and pushes go to are exactly the ones written
+            Chunk chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                List<String> userIds = new ArrayList<>();
+                jdbcTemplate.query(CHUNK_SQL, rs -> {
+                    ids.add(rs.getLong(1));
+                    userIds.add(rs.getString(2));
+                }, event.productId(), fromId, chunkSize);
+                if (ids.isEmpty()) {
+                    return new Chunk(ids, userIds, 0);
+                }
+                String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                List<Object> insertArgs = new ArrayList<>(ids.size() + 2);
+                insertArgs.add(title);
+                insertArgs.add(message);
+                insertArgs.addAll(ids);
+                int inserted = jdbcTemplate.update(String.format(INSERT_SQL, in), insertArgs.toArray());
+                jdbcTemplate.update(String.format(COUNTER_SQL, in), ids.toArray());
+                return new Chunk(ids, userIds, inserted);
+            });
+            if (chunk == null || chunk.ids().isEmpty()) {
+                break;
+            }
+            sent += chunk.inserted();
+            afterId = chunk.ids().get(chunk.ids().size() - 1);
+
+            for (String userId : chunk.userIds()) {
+                unreadCounterService.applyCommitted(userId, 1);
+                if (pushService.isConnected(userId)) {
+                    pushService.publishPending(userId);
+                }
+            }
+            if (chunk.ids().size() < chunkSize) {
+                break;
+            }
+        }
+        return sent;
+    }
+
+    private record Chunk(List<Long> ids, List<String> userIds, int inserted) {
+    }
+}
@@ -0,0 +1,70 @@
+-- Baseline schema for the durable (file-backed) profile.
+-- Mirrors the JPA mappings; ddl-auto=validate checks them against this on startup.
+
+CREATE TABLE products (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255),
+    description    VARCHAR(255),
+    price          FLOAT(53),
+    image_url      VARCHAR(255),
+    average_rating FLOAT(53),
+    review_count   INTEGER
+);
+
+CREATE TABLE product_categories (
+    product_id BIGINT NOT NULL,
+    category   VARCHAR(255),
+    CONSTRAINT fk_product_categories_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE reviews (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reviewer_name VARCHAR(255),
+    comment       VARCHAR(255),
+    rating        INTEGER,
+    helpful_count INTEGER,
+    created_at    TIMESTAMP(6),
+    product_id    BIGINT,
+    CONSTRAINT fk_reviews_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE review_votes (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id   VARCHAR(255) NOT NULL,
+    review_id BIGINT       NOT NULL,
+    CONSTRAINT uk_review_votes_user_review UNIQUE (user_id, review_id)
+);
+
+CREATE TABLE wishlist_items (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    VARCHAR(255) NOT NULL,
+    product_id BIGINT       NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_wishlist_items_user_product UNIQUE (user_id, product_id)
+);
+CREATE INDEX idx_wishlist_items_user_created ON wishlist_items (user_id, created_at);
+CREATE INDEX idx_wishlist_items_product ON wishlist_items (product_id, id);
+
+CREATE TABLE notifications (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    VARCHAR(255) NOT NULL,
+    title      VARCHAR(255) NOT NULL,
+    message    VARCHAR(255) NOT NULL,
+    is_read    BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6),
+    product_id BIGINT
+);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at);
+CREATE INDEX idx_notifications_read_created ON notifications (is_read, created_at);
+
+CREATE TABLE notification_counters (
+    user_id      VARCHAR(255) PRIMARY KEY,
+    unread_count BIGINT NOT NULL
+);
+
+CREATE TABLE product_summaries (
+    product_id  BIGINT PRIMARY KEY,
+    review_hash VARCHAR(64)   NOT NULL,
+    summary     VARCHAR(4000) NOT NULL,
+    updated_at  TIMESTAMP(6)
+);
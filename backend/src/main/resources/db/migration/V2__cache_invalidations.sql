@@ -0,0 +1,10 @@
+-- Cross-node cache invalidation log, polled by every instance (DatabaseInvalidationTransport)
+
+CREATE TABLE cache_invalidations (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cache_name VARCHAR(100) NOT NULL,
+    cache_key  VARCHAR(500),
+    origin     VARCHAR(64)  NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX idx_cache_invalidations_created ON cache_invalidations (created_at);
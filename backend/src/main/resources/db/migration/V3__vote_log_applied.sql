@@ -0,0 +1,6 @@
+-- Vote log segments already applied to reviews.helpful_count (HelpfulVoteBuffer replay guard)
+
+CREATE TABLE vote_log_applied (
+    segment_id BIGINT       NOT NULL PRIMARY KEY,
+    applied_at TIMESTAMP(6) NOT NULL
+);
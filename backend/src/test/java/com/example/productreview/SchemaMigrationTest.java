@@ -0,0 +1,92 @@
+package com.example.productreview;
+
+import com.example.productreview.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the durable profile against a throwaway in-memory database, so the
+ * Flyway migrations run and ddl-auto=validate fails the context if an entity
+ * mapping drifts from them. validate only checks tables and columns, so the
+ * indexes and unique constraints declared on the entities are checked here.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:migrationtest;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("durable")
+public class SchemaMigrationTest {
+
+    private static final String INDEX_COLUMNS_SQL =
+            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+            "WHERE TABLE_SCHEMA = 'PUBLIC' AND UPPER(TABLE_NAME) = UPPER(?) AND UPPER(INDEX_NAME) = UPPER(?) " +
+            "ORDER BY ORDINAL_POSITION";
+    private static final String UNIQUE_COLUMNS_SQL =
+            "SELECT k.COLUMN_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS t " +
+            "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE k " +
+            "ON k.CONSTRAINT_SCHEMA = t.CONSTRAINT_SCHEMA AND k.CONSTRAINT_NAME = t.CONSTRAINT_NAME " +
+            "WHERE t.CONSTRAINT_TYPE = 'UNIQUE' AND t.TABLE_SCHEMA = 'PUBLIC' " +
+            "AND UPPER(t.TABLE_NAME) = UPPER(?) AND UPPER(t.CONSTRAINT_NAME) = UPPER(?) " +
+            "ORDER BY k.ORDINAL_POSITION";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratedSchema_ShouldMatchEntitiesAndAcceptSeedData() {
+        assertTrue(productRepository.count() > 0);
+    }
+
+    @Test
+    void migratedSchema_ShouldHaveEveryIndexAndUniqueConstraintDeclaredOnTheEntities() {
+        int checked = 0;
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null) {
+                continue;
+            }
+            for (Index index : table.indexes()) {
+                assertEquals(columns(index.columnList().split(",")),
+                        columns(jdbcTemplate.queryForList(INDEX_COLUMNS_SQL, String.class, table.name(), index.name())),
+                        "index " + index.name() + " on " + table.name());
+                checked++;
+            }
+            for (UniqueConstraint unique : table.uniqueConstraints()) {
+                assertEquals(columns(unique.columnNames()),
+                        columns(jdbcTemplate.queryForList(UNIQUE_COLUMNS_SQL, String.class, table.name(), unique.name())),
+                        "unique constraint " + unique.name() + " on " + table.name());
+                checked++;
+            }
+        }
+        assertTrue(checked > 0, "no @Table indexes or unique constraints found");
+    }
+
+    private static List<String> columns(String... names) {
+        return columns(Arrays.asList(names));
+    }
+
+    private static List<String> columns(List<String> names) {
+        return names.stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+}
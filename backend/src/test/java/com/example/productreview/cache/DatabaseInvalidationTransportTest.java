@@ -0,0 +1,111 @@
+package com.example.productreview.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two transports ("nodes") over one shared in-memory H2, the way two instances
+ * share a database server. Out-of-order commits are simulated by inserting
+ * rows with explicit ids.
+ */
+public class DatabaseInvalidationTransportTest {
+
+    private static final Duration GAP_TIMEOUT = Duration.ofMillis(50);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:cache_invalidation;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS cache_invalidations");
+        jdbcTemplate.execute("CREATE TABLE cache_invalidations (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "cache_name VARCHAR(100) NOT NULL, cache_key VARCHAR(500), origin VARCHAR(64) NOT NULL, "
+                + "created_at TIMESTAMP(6) NOT NULL)");
+    }
+
+    @Test
+    void receive_ShouldDeliverPeerInvalidationsOnceAndSkipOwn() {
+        DatabaseInvalidationTransport nodeA = transport(true);
+        DatabaseInvalidationTransport nodeB = transport(true);
+        nodeA.publish("a", List.of(CacheInvalidation.evict("aiSummaries", 1L)));
+
+        // The first poll only sets the watermark: rows from before a node started aren't replayed
+        assertTrue(nodeA.receive("a").isEmpty());
+        assertTrue(nodeB.receive("b").isEmpty());
+
+        nodeA.publish("a", List.of(CacheInvalidation.evict("aiSummaries", 2L), CacheInvalidation.clear("productListings")));
+
+        assertEquals(List.of(new CacheInvalidation("aiSummaries", "2"), CacheInvalidation.clear("productListings")),
+                nodeB.receive("b"));
+        assertTrue(nodeA.receive("a").isEmpty(), "a node must not replay its own evictions");
+        assertTrue(nodeB.receive("b").isEmpty(), "delivered rows must not come back on the next poll");
+    }
+
+    @Test
+    void receive_ShouldPickUpARowThatCommitsBehindALaterOne() {
+        DatabaseInvalidationTransport node = transport(true);
+        assertTrue(node.receive("b").isEmpty());
+
+        insert(2, "k2");
+        assertEquals(List.of(new CacheInvalidation("aiSummaries", "k2")), node.receive("b"));
+
+        // id 1 commits late; it is still above the watermark, so it is delivered, and id 2 is not repeated
+        insert(1, "k1");
+        assertEquals(List.of(new CacheInvalidation("aiSummaries", "k1")), node.receive("b"));
+        assertTrue(node.receive("b").isEmpty());
+    }
+
+    @Test
+    void receive_ShouldSkipAGapThatStaysOpenPastTheTimeout() throws InterruptedException {
+        DatabaseInvalidationTransport node = transport(true);
+        assertTrue(node.receive("b").isEmpty());
+
+        // id 1 never commits (rolled back)
+        insert(2, "k2");
+        assertEquals(1, node.receive("b").size());
+        Thread.sleep(GAP_TIMEOUT.toMillis() * 2);
+        assertTrue(node.receive("b").isEmpty());
+
+        insert(3, "k3");
+        assertEquals(List.of(new CacheInvalidation("aiSummaries", "k3")), node.receive("b"));
+
+        // The watermark moved past the gap: a row that shows up there now is below it
+        insert(1, "k1");
+        assertTrue(node.receive("b").isEmpty());
+    }
+
+    @Test
+    void purge_ShouldOnlyRunWhenInvalidationIsEnabled() {
+        jdbcTemplate.update("INSERT INTO cache_invalidations (cache_name, cache_key, origin, created_at) VALUES (?, ?, ?, ?)",
+                "aiSummaries", "1", "a", Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+
+        transport(false).purge();
+        assertEquals(1, rows());
+
+        transport(true).purge();
+        assertEquals(0, rows());
+    }
+
+    private DatabaseInvalidationTransport transport(boolean enabled) {
+        return new DatabaseInvalidationTransport(jdbcTemplate, enabled, 1000, GAP_TIMEOUT, Duration.ofMinutes(10));
+    }
+
+    private void insert(long id, String key) {
+        jdbcTemplate.update("INSERT INTO cache_invalidations (id, cache_name, cache_key, origin, created_at) VALUES (?, ?, ?, ?, ?)",
+                id, "aiSummaries", key, "a", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class);
+    }
+}
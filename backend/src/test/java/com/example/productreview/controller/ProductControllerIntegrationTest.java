@@ -1,16 +1,23 @@
 package com.example.productreview.controller;
 
+import com.example.productreview.config.CacheConfig;
 import com.example.productreview.dto.ReviewDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static com.example.productreview.metrics.QueryBudgetMatchers.entitiesLoadedAtMost;
+import static com.example.productreview.metrics.QueryBudgetMatchers.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -24,6 +31,9 @@ public class ProductControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     void getAllProducts_ShouldReturnOk() throws Exception {
         mockMvc.perform(get("/api/products"))
@@ -38,6 +48,63 @@ public class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    void getProductById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/products/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/2").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void addReview_ShouldChangeProductDetailBodyAndETag() throws Exception {
+        MvcResult before = mockMvc.perform(get("/api/products/3"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Cache Buster");
+        reviewDTO.setComment("Posting this should replace the cached detail response.");
+        reviewDTO.setRating(1);
+        mockMvc.perform(post("/api/products/3/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        String etag = before.getResponse().getHeader("ETag");
+        MvcResult after = mockMvc.perform(get("/api/products/3").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviewCount").value(
+                        objectMapper.readTree(before.getResponse().getContentAsByteArray()).get("reviewCount").asInt() + 1))
+                .andReturn();
+        assertNotEquals(etag, after.getResponse().getHeader("ETag"));
+        assertNotEquals(before.getResponse().getContentAsString(), after.getResponse().getContentAsString());
+    }
+
+    @Test
+    void getAllProducts_ShouldStayWithinQueryBudget() throws Exception {
+        // A full page of 10 seeded products: page + count + one batched categories query, not one per product
+        cacheManager.getCache(CacheConfig.PRODUCT_LISTINGS).clear();
+        mockMvc.perform(get("/api/products").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(statementsAtMost(4))
+                .andExpect(entitiesLoadedAtMost(10));
+    }
+
+    @Test
+    void getProductById_ShouldStayWithinQueryBudget() throws Exception {
+        // Cold build of product 1 (the one with 30+ reviews): a fixed number of queries, not one per review
+        cacheManager.getCache(CacheConfig.PRODUCT_DETAIL_JSON).evict(1L);
+        cacheManager.getCache(CacheConfig.AI_SUMMARIES).evict(1L);
+        mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(10));
+    }
+
     @Test
     void addReview_WithValidData_ShouldReturnCreated() throws Exception {
         ReviewDTO reviewDTO = new ReviewDTO();
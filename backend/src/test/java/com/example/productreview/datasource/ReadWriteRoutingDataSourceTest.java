@@ -0,0 +1,99 @@
+package com.example.productreview.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each holds a
+ * marker row naming itself, so a query shows where it was routed.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary", "primary");
+        DataSource replica = database("routing_replica", "replica");
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, Duration.ofMinutes(1));
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.clearUser();
+        ReadWriteRoutingDataSource.clearPrimaryReads();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertEquals("primary", readWrite.execute(status -> marker()));
+    }
+
+    @Test
+    void noTransaction_ShouldUsePrimary() {
+        assertEquals("primary", marker());
+    }
+
+    @Test
+    void afterWrite_ShouldReadOwnWritesFromPrimaryOnly() {
+        ReadWriteRoutingDataSource.bindUser("writer");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET name = name"));
+        assertEquals("primary", readOnly.execute(status -> marker()));
+
+        ReadWriteRoutingDataSource.bindUser("reader");
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    @Test
+    void cacheFill_ShouldReadFromPrimaryUntilTheOutermostFillEnds() {
+        ReadWriteRoutingDataSource.bindPrimaryReads();
+        ReadWriteRoutingDataSource.bindPrimaryReads();
+        assertEquals("primary", readOnly.execute(status -> marker()));
+
+        ReadWriteRoutingDataSource.clearPrimaryReads();
+        assertEquals("primary", readOnly.execute(status -> marker()));
+
+        ReadWriteRoutingDataSource.clearPrimaryReads();
+        assertEquals("replica", readOnly.execute(status -> marker()));
+    }
+
+    private String marker() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name, String marker) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM marker");
+        jdbcTemplate.update("INSERT INTO marker (name) VALUES (?)", marker);
+        return dataSource;
+    }
+}
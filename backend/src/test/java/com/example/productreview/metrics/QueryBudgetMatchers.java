@@ -0,0 +1,53 @@
+package com.example.productreview.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc matchers over the per-request query stats, e.g.
+ * {@code mockMvc.perform(get("/api/products")).andExpect(statementsAtMost(5))}.
+ */
+public final class QueryBudgetMatchers {
+
+    private QueryBudgetMatchers() {
+    }
+
+    public static ResultMatcher statementsAtMost(int max) {
+        return result -> {
+            RequestQueryStats stats = stats(result);
+            if (stats.getStatements() > max) {
+                throw new AssertionError("Expected at most " + max + " statements but " + describe(stats));
+            }
+        };
+    }
+
+    public static ResultMatcher rowsAtMost(long max) {
+        return result -> {
+            RequestQueryStats stats = stats(result);
+            if (stats.getRows() > max) {
+                throw new AssertionError("Expected at most " + max + " rows but " + describe(stats));
+            }
+        };
+    }
+
+    public static ResultMatcher entitiesLoadedAtMost(int max) {
+        return result -> {
+            RequestQueryStats stats = stats(result);
+            if (stats.getEntitiesLoaded() > max) {
+                throw new AssertionError("Expected at most " + max + " entities loaded but " + describe(stats));
+            }
+        };
+    }
+
+    private static RequestQueryStats stats(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(RequestQueryStats.REQUEST_ATTRIBUTE);
+        if (!(stats instanceof RequestQueryStats requestQueryStats)) {
+            throw new AssertionError("No query stats on the request; is RequestQueryMetricsFilter registered with MockMvc?");
+        }
+        return requestQueryStats;
+    }
+
+    private static String describe(RequestQueryStats stats) {
+        return "got " + stats + ":\n  " + String.join("\n  ", stats.getSampledStatements());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.productreview.ratelimit;
+
+import com.example.productreview.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofMillis(10).toNanos();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void requestsAboveLimit_ShouldBeShed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(Duration.ofSeconds(1), 2);
+
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        assertTrue(limiter.preHandle(first, response, null));
+        assertTrue(limiter.preHandle(second, response, null));
+        assertThrows(TooManyRequestsException.class, () -> limiter.preHandle(new MockHttpServletRequest(), response, null));
+
+        limiter.afterCompletion(first, response, null, null);
+        assertTrue(limiter.preHandle(new MockHttpServletRequest(), response, null));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void slowP99AtTheLimit_ShouldShrinkAndRecover() {
+        AdaptiveConcurrencyLimiter limiter = limiter(Duration.ZERO, 10);
+        recordWindow(limiter, FAST);
+        assertEquals(10, limiter.getLimit());
+
+        List<MockHttpServletRequest> open = open(limiter, 10);
+        recordWindow(limiter, SLOW);
+        assertEquals(9, limiter.getLimit());
+
+        close(limiter, open);
+        recordWindow(limiter, FAST);
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void slowP99WithoutContention_ShouldKeepLimit() {
+        // e.g. a few requests waiting on an upstream call
+        AdaptiveConcurrencyLimiter limiter = limiter(Duration.ZERO, 10);
+        recordWindow(limiter, FAST);
+
+        recordWindow(limiter, SLOW);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void slowP99BelowFloor_ShouldNotShrinkLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(Duration.ofSeconds(1), 10);
+        recordWindow(limiter, FAST);
+
+        List<MockHttpServletRequest> open = open(limiter, 10);
+        recordWindow(limiter, SLOW);
+
+        assertTrue(limiter.getLimit() >= 10);
+        close(limiter, open);
+    }
+
+    @Test
+    void fastP99UnderPressure_ShouldGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(Duration.ofMinutes(1), 20);
+        close(limiter, open(limiter, 15));
+
+        recordWindow(limiter, FAST);
+
+        assertEquals(22, limiter.getLimit());
+    }
+
+    // 50 samples of the given latency, then one adjustment
+    private static void recordWindow(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        for (int i = 0; i < 50; i++) {
+            limiter.record(latencyNanos);
+        }
+        limiter.adjust();
+    }
+
+    private List<MockHttpServletRequest> open(AdaptiveConcurrencyLimiter limiter, int count) {
+        List<MockHttpServletRequest> open = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            limiter.preHandle(request, response, null);
+            open.add(request);
+        }
+        return open;
+    }
+
+    private void close(AdaptiveConcurrencyLimiter limiter, List<MockHttpServletRequest> requests) {
+        requests.forEach(request -> limiter.afterCompletion(request, response, null, null));
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(Duration latencyFloor, int initialLimit) {
+        return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, latencyFloor, 2.0, initialLimit, 1, 1000, 0.9);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.productreview.ratelimit;
+
+import com.example.productreview.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // 2 votes per user, 4 per address, no refill to speak of
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+            new MockEnvironment()
+                    .withProperty("rate-limit.vote.capacity", "2")
+                    .withProperty("rate-limit.vote.refill-per-second", "0.001"),
+            new SimpleMeterRegistry(), true, 1000, Duration.ofMinutes(10), 2);
+
+    @Test
+    void sameUser_ShouldBeLimitedAcrossAddresses() {
+        assertTrue(interceptor.preHandle(vote("10.0.0.1", "alice"), response, null));
+        assertTrue(interceptor.preHandle(vote("10.0.0.2", "alice"), response, null));
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(vote("10.0.0.3", "alice"), response, null));
+    }
+
+    @Test
+    void rotatingUserHeader_ShouldStillBeLimitedPerAddress() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(interceptor.preHandle(vote("10.0.0.9", "user-" + i), response, null));
+        }
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(vote("10.0.0.9", "user-4"), response, null));
+        assertThrows(TooManyRequestsException.class, () -> interceptor.preHandle(vote("10.0.0.9", null), response, null));
+    }
+
+    @Test
+    void unclassifiedEndpoint_ShouldNotBeLimited() {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products");
+            assertTrue(interceptor.preHandle(request, response, null));
+        }
+    }
+
+    private static MockHttpServletRequest vote(String remoteAddr, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/products/reviews/1/helpful");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/reviews/{reviewId}/helpful");
+        request.setRemoteAddr(remoteAddr);
+        if (userId != null) {
+            request.addHeader("X-User-ID", userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.productreview.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Write-behind flush and vote log replay against an in-memory H2. A "crash" is a
+ * buffer that is simply abandoned; a new buffer on the same log directory plays
+ * the restarted process.
+ */
+public class HelpfulVoteBufferTest {
+
+    private static final long REVIEW_ID = 1L;
+
+    @TempDir
+    Path logDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:vote_buffer;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS reviews (id BIGINT PRIMARY KEY, helpful_count INT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS vote_log_applied "
+                + "(segment_id BIGINT PRIMARY KEY, applied_at TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.update("DELETE FROM reviews");
+        jdbcTemplate.update("DELETE FROM vote_log_applied");
+        jdbcTemplate.update("INSERT INTO reviews (id, helpful_count) VALUES (?, 0)", REVIEW_ID);
+    }
+
+    @Test
+    void flush_ShouldApplyDeltasAndDeleteCoveredSegments() throws IOException {
+        HelpfulVoteBuffer buffer = buffer("validate");
+        buffer.record(REVIEW_ID, 1);
+        buffer.record(REVIEW_ID, 1);
+        buffer.record(REVIEW_ID, 1);
+        buffer.record(REVIEW_ID, -1);
+        assertEquals(2, buffer.pendingDelta(REVIEW_ID));
+
+        buffer.flush();
+
+        assertEquals(2, helpfulCount());
+        assertEquals(0, buffer.pendingDelta(REVIEW_ID));
+        assertEquals(1, segments().size(), "only the fresh segment should be left");
+        assertEquals(0, appliedMarkers());
+    }
+
+    @Test
+    void replayAfterCrashBeforeCommit_ShouldApplyLoggedVotesOnce() throws IOException {
+        HelpfulVoteBuffer crashed = buffer("validate");
+        crashed.record(REVIEW_ID, 1);
+        crashed.record(REVIEW_ID, 1);
+
+        HelpfulVoteBuffer restarted = buffer("validate");
+        restarted.recover();
+        assertEquals(2, restarted.pendingDelta(REVIEW_ID));
+        restarted.flush();
+        assertEquals(2, helpfulCount());
+
+        HelpfulVoteBuffer restartedAgain = buffer("validate");
+        restartedAgain.recover();
+        restartedAgain.flush();
+        assertEquals(2, helpfulCount());
+    }
+
+    @Test
+    void replayAfterCrashAfterCommit_ShouldSkipAppliedSegments() throws IOException {
+        HelpfulVoteBuffer crashed = buffer("validate");
+        crashed.record(REVIEW_ID, 1);
+        crashed.record(REVIEW_ID, 1);
+        Map<Path, byte[]> logged = new HashMap<>();
+        for (Path segment : segments()) {
+            logged.put(segment, Files.readAllBytes(segment));
+        }
+        crashed.flush();
+        assertEquals(2, helpfulCount());
+
+        // Put back what a crash between the commit and the cleanup would have left
+        for (Map.Entry<Path, byte[]> segment : logged.entrySet()) {
+            Files.write(segment.getKey(), segment.getValue());
+            jdbcTemplate.update("INSERT INTO vote_log_applied (segment_id, applied_at) VALUES (?, CURRENT_TIMESTAMP)",
+                    segmentId(segment.getKey()));
+        }
+
+        HelpfulVoteBuffer restarted = buffer("validate");
+        restarted.recover();
+        assertEquals(0, restarted.pendingDelta(REVIEW_ID));
+        restarted.flush();
+
+        assertEquals(2, helpfulCount());
+        logged.keySet().forEach(segment -> assertFalse(Files.exists(segment)));
+        assertEquals(0, appliedMarkers());
+    }
+
+    @Test
+    void replayOnRecreatedSchema_ShouldDiscardLog() throws IOException {
+        HelpfulVoteBuffer crashed = buffer("validate");
+        crashed.record(REVIEW_ID, 1);
+        List<Path> logged = segments();
+
+        HelpfulVoteBuffer restarted = buffer("create-drop");
+        restarted.recover();
+        restarted.flush();
+
+        assertEquals(0, restarted.pendingDelta(REVIEW_ID));
+        assertEquals(0, helpfulCount());
+        logged.forEach(segment -> assertFalse(Files.exists(segment)));
+    }
+
+    @Test
+    void record_WhenVoteLogFails_ShouldUpdateTheReviewDirectly() throws IOException {
+        Path ownDir = logDir.resolve("lost");
+        HelpfulVoteBuffer buffer = new HelpfulVoteBuffer(true, ownDir.toString(), "validate", jdbcTemplate, transactionManager);
+        buffer.record(REVIEW_ID, 1);
+
+        // The next segment can't be opened, which leaves the log closed
+        try (Stream<Path> files = Files.list(ownDir)) {
+            for (Path segment : files.collect(Collectors.toList())) {
+                Files.delete(segment);
+            }
+        }
+        Files.delete(ownDir);
+        buffer.flush();
+
+        buffer.record(REVIEW_ID, 1);
+        assertEquals(1, helpfulCount());
+        assertEquals(1, buffer.pendingDelta(REVIEW_ID), "only the logged vote stays buffered");
+    }
+
+    private HelpfulVoteBuffer buffer(String ddlAuto) {
+        return new HelpfulVoteBuffer(true, logDir.toString(), ddlAuto, jdbcTemplate, transactionManager);
+    }
+
+    private int helpfulCount() {
+        return jdbcTemplate.queryForObject("SELECT helpful_count FROM reviews WHERE id = ?", Integer.class, REVIEW_ID);
+    }
+
+    private int appliedMarkers() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vote_log_applied", Integer.class);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(logDir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentId(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("votes-".length(), name.length() - ".log".length()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.repository.ReviewRepository;
+import com.example.productreview.repository.ReviewVoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class HelpfulVoteConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int VOTERS = 400;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewVoteRepository reviewVoteRepository;
+
+    private Long reviewId;
+
+    @BeforeEach
+    void setUp() {
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Stress Tester");
+        reviewDTO.setComment("A review that is about to get a lot of votes.");
+        reviewDTO.setRating(4);
+        reviewId = productService.addReview(1L, reviewDTO).getId();
+    }
+
+    @Test
+    void concurrentVotesFromDistinctUsers_ShouldNotLoseUpdates() throws Exception {
+        runConcurrently(VOTERS, i -> productService.markReviewAsHelpful(reviewId, "stress-user-" + i));
+        assertEquals(VOTERS, helpfulCount());
+        assertEquals(VOTERS, reviewVoteRepository.countByReviewId(reviewId));
+
+        // Half of the users take their vote back while as many anonymous votes come in
+        runConcurrently(VOTERS, i -> productService.markReviewAsHelpful(reviewId, i % 2 == 0 ? "stress-user-" + i : null));
+        assertEquals(VOTERS, helpfulCount());
+        assertEquals(VOTERS / 2, reviewVoteRepository.countByReviewId(reviewId));
+    }
+
+    @Test
+    void concurrentTogglesFromSameUser_ShouldKeepCountInSyncWithVotes() throws Exception {
+        // A racing duplicate insert is a no-op, so every toggle must succeed
+        runConcurrently(50, i -> productService.markReviewAsHelpful(reviewId, "double-tapper"));
+
+        long votes = reviewVoteRepository.countByReviewId(reviewId);
+        assertTrue(votes <= 1);
+        assertEquals(votes, helpfulCount());
+    }
+
+    private int helpfulCount() {
+        return reviewRepository.findById(reviewId).orElseThrow().getHelpfulCount();
+    }
+
+    private interface Vote {
+        Object cast(int i);
+    }
+
+    private void runConcurrently(int count, Vote vote) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                tasks.add(() -> vote.cast(index));
+            }
+            for (Future<Object> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.NotificationDTO;
+import com.example.productreview.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stream registry, Last-Event-ID replay and dead-stream cleanup, with emitters
+ * that record what they were sent instead of writing to a response. Writes
+ * happen on the push writer pool, so assertions on what was sent wait for it.
+ */
+public class NotificationPushServiceTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationPushService pushService;
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        pushService = pushService(200, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushService.shutdown();
+        emitters.forEach(emitter -> emitter.release());
+    }
+
+    @Test
+    void connect_ShouldRegisterStreamsUntilTheyComplete() {
+        pushService.connect("alice", null);
+        pushService.connect("alice", null);
+        assertTrue(pushService.isConnected("alice"));
+        assertEquals(2, pushService.connectionCount());
+
+        emitters.get(0).disconnect();
+        assertTrue(pushService.isConnected("alice"));
+        assertEquals(1, pushService.connectionCount());
+
+        emitters.get(1).disconnect();
+        assertFalse(pushService.isConnected("alice"));
+        assertEquals(0, pushService.connectionCount());
+    }
+
+    @Test
+    void connect_WithLastEventId_ShouldReplayMissedNotificationsOnePageAtATime() {
+        when(notificationRepository.countByUserIdAndIsReadFalse("alice")).thenReturn(3L);
+        when(notificationRepository.findByUserIdAfterId(eq("alice"), eq(5L), any()))
+                .thenReturn(notifications(6, 5 + NotificationPushService.MAX_REPLAY));
+
+        pushService.connect("alice", 5L);
+
+        RecordingEmitter emitter = emitters.get(0);
+        awaitTrue(() -> emitter.events.size() == 1 + NotificationPushService.MAX_REPLAY);
+        assertTrue(emitter.events.get(0).contains("event:unread-count"));
+        assertTrue(emitter.events.get(0).contains("{count=3}"));
+        assertEquals(1 + NotificationPushService.MAX_REPLAY, emitter.events.size());
+        assertTrue(emitter.events.get(1).contains("id:6\n"));
+
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(notificationRepository).findByUserIdAfterId(eq("alice"), eq(5L), page.capture());
+        assertEquals(NotificationPushService.MAX_REPLAY, page.getValue().getPageSize());
+
+        // The next signal resumes after the last id sent
+        long lastSent = 5 + NotificationPushService.MAX_REPLAY;
+        when(notificationRepository.findByUserIdAfterId(eq("alice"), eq(lastSent), any()))
+                .thenReturn(notifications(lastSent + 1, lastSent + 1));
+        pushService.publishPending("alice");
+        awaitTrue(() -> emitter.events.size() == 2 + NotificationPushService.MAX_REPLAY);
+        assertTrue(emitter.events.get(emitter.events.size() - 1).contains("id:" + (lastSent + 1) + "\n"));
+    }
+
+    @Test
+    void publish_WhenWriteFails_ShouldDropTheStream() {
+        pushService.connect("alice", null);
+        emitters.get(0).failWrites = true;
+
+        pushService.publishUnreadDelta("alice", 1);
+
+        awaitTrue(() -> !pushService.isConnected("alice"));
+        assertEquals(0, pushService.connectionCount());
+    }
+
+    @Test
+    void publish_WhenStreamStopsReading_ShouldNotBlockThePublisherAndDropOnOverflow() throws InterruptedException {
+        pushService.connect("alice", null);
+        RecordingEmitter emitter = emitters.get(0);
+        awaitTrue(() -> emitter.events.size() == 1);
+        emitter.blockWrites = new CountDownLatch(1);
+
+        pushService.publishUnreadDelta("alice", 1);
+        assertTrue(emitter.writeStarted.await(5, TimeUnit.SECONDS));
+
+        // The writer is stuck in a socket write; publishers only fill the bounded queue, then the stream is dropped
+        for (int i = 0; i < 9; i++) {
+            pushService.publishUnreadDelta("alice", 1);
+            pushService.publishPending("alice");
+        }
+        assertFalse(pushService.isConnected("alice"));
+        assertTrue(emitter.writeInterrupted.await(5, TimeUnit.SECONDS), "the stuck writer should be freed");
+    }
+
+    @Test
+    void heartbeat_WhenWriteIsStuckPastTimeout_ShouldDropTheStreamAndFreeTheWriter() throws InterruptedException {
+        pushService.connect("alice", null);
+        RecordingEmitter emitter = emitters.get(0);
+        awaitTrue(() -> emitter.events.size() == 1);
+        emitter.blockWrites = new CountDownLatch(1);
+
+        pushService.publishUnreadDelta("alice", 1);
+        assertTrue(emitter.writeStarted.await(5, TimeUnit.SECONDS));
+        pushService.heartbeat();
+        assertTrue(pushService.isConnected("alice"), "a write in progress isn't a timeout yet");
+
+        Thread.sleep(300);
+        pushService.heartbeat();
+
+        assertFalse(pushService.isConnected("alice"));
+        assertEquals(0, pushService.connectionCount());
+        assertTrue(emitter.writeInterrupted.await(5, TimeUnit.SECONDS), "the stuck writer should be freed");
+    }
+
+    @Test
+    void heartbeat_WhileAWriteIsPending_ShouldNotQueueMoreHeartbeats() throws InterruptedException {
+        pushService.shutdown();
+        pushService = pushService(60_000, 2);
+        pushService.connect("alice", null);
+        RecordingEmitter emitter = emitters.get(0);
+        awaitTrue(() -> emitter.events.size() == 1);
+        emitter.blockWrites = new CountDownLatch(1);
+
+        pushService.publishUnreadDelta("alice", 1);
+        assertTrue(emitter.writeStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            pushService.heartbeat();
+        }
+
+        // A queue of 2 would have overflowed if every tick had queued another heartbeat
+        assertTrue(pushService.isConnected("alice"));
+        emitter.release();
+        awaitTrue(() -> emitter.events.size() == 2);
+        assertTrue(pushService.isConnected("alice"));
+    }
+
+    private NotificationPushService pushService(long writeTimeoutMs, int queueCapacity) {
+        return new NotificationPushService(notificationRepository, 60_000, writeTimeoutMs, 2, queueCapacity) {
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter(timeoutMs);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static List<NotificationDTO> notifications(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new NotificationDTO(id, "Price drop", "Notification " + id, false, LocalDateTime.now(), null))
+                .collect(Collectors.toList());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final List<Runnable> completionCallbacks = new ArrayList<>();
+        private final CountDownLatch writeStarted = new CountDownLatch(1);
+        private final CountDownLatch writeInterrupted = new CountDownLatch(1);
+        private volatile CountDownLatch blockWrites;
+        private volatile boolean failWrites;
+
+        RecordingEmitter(long timeoutMs) {
+            super(timeoutMs);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failWrites) {
+                throw new IOException("Broken pipe");
+            }
+            CountDownLatch block = blockWrites;
+            if (block != null) {
+                writeStarted.countDown();
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    writeInterrupted.countDown();
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallbacks.add(callback);
+            super.onCompletion(callback);
+        }
+
+        void release() {
+            CountDownLatch block = blockWrites;
+            blockWrites = null;
+            if (block != null) {
+                block.countDown();
+            }
+        }
+
+        // What the servlet container does when the client goes away
+        void disconnect() {
+            completionCallbacks.forEach(Runnable::run);
+        }
+    }
+}
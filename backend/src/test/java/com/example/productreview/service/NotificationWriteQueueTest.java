@@ -0,0 +1,112 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.NotificationRequest;
+import com.example.productreview.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Accept / reject / flush behaviour of the batch notification queue against an
+ * in-memory H2 with just the two tables it writes.
+ */
+public class NotificationWriteQueueTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private UnreadCounterService unreadCounterService;
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:write_queue;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        unreadCounterService = mock(UnreadCounterService.class);
+        pushService = mock(NotificationPushService.class);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notifications (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "user_id VARCHAR(255), title VARCHAR(255), message VARCHAR(255), is_read BOOLEAN, "
+                + "created_at TIMESTAMP(6), product_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_counters "
+                + "(user_id VARCHAR(255) PRIMARY KEY, unread_count BIGINT NOT NULL)");
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("DELETE FROM notification_counters");
+        jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) VALUES ('alice', 0)");
+    }
+
+    @Test
+    void flush_ShouldWriteQueuedNotificationsAndBumpCounters() {
+        NotificationWriteQueue queue = queue(10, 2);
+        queue.enqueueAll(requests("alice", 3));
+        queue.enqueueAll(requests("bob", 1));
+        assertEquals(0, count("notifications"));
+
+        queue.flush();
+
+        assertEquals(4, count("notifications"));
+        assertEquals(3L, jdbcTemplate.queryForObject(
+                "SELECT unread_count FROM notification_counters WHERE user_id = 'alice'", Long.class));
+        verify(unreadCounterService).applyCommitted("alice", 2);
+        verify(unreadCounterService).applyCommitted("alice", 1);
+        verify(unreadCounterService).applyCommitted("bob", 1);
+        assertEquals(4L, queue.snapshot().get("written"));
+        assertEquals(0, queue.snapshot().get("depth"));
+    }
+
+    @Test
+    void enqueueAll_WhenBatchDoesNotFit_ShouldRejectWholeBatch() {
+        NotificationWriteQueue queue = queue(5, 500);
+        queue.enqueueAll(requests("alice", 4));
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                () -> queue.enqueueAll(requests("bob", 2)));
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(4, queue.snapshot().get("depth"), "a rejected batch must not be partially queued");
+        assertEquals(2L, queue.snapshot().get("rejected"));
+
+        queue.enqueueAll(requests("bob", 1));
+        assertEquals(5, queue.snapshot().get("depth"));
+    }
+
+    @Test
+    void drain_ShouldFlushQueuedNotificationsAndRejectLaterBatches() {
+        NotificationWriteQueue queue = queue(10, 500);
+        queue.enqueueAll(requests("alice", 3));
+
+        queue.drain();
+
+        assertEquals(3, count("notifications"));
+        assertThrows(ServiceUnavailableException.class, () -> queue.enqueueAll(requests("alice", 1)));
+        assertEquals(0, queue.snapshot().get("depth"));
+    }
+
+    private NotificationWriteQueue queue(int capacity, int batchSize) {
+        return new NotificationWriteQueue(jdbcTemplate, transactionManager, unreadCounterService, pushService,
+                capacity, batchSize);
+    }
+
+    private static List<NotificationRequest> requests(String userId, int n) {
+        return IntStream.range(0, n).mapToObj(i -> {
+            NotificationRequest request = new NotificationRequest();
+            request.setUserId(userId);
+            request.setTitle("Price drop");
+            request.setMessage("Notification " + i);
+            return request;
+        }).collect(Collectors.toList());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.productreview.service;
+
+import com.example.productreview.config.CacheConfig;
+import com.example.productreview.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Build-and-cache behaviour of the encoded product detail, including an
+ * eviction (a committed review) that lands while a build is running.
+ */
+public class ProductDetailJsonCacheTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private ProductService productService;
+    private CaffeineCacheManager cacheManager;
+    private ProductDetailJsonCache detailCache;
+    private final AtomicInteger reviewCount = new AtomicInteger(3);
+
+    @BeforeEach
+    void setUp() {
+        productService = mock(ProductService.class);
+        cacheManager = new CaffeineCacheManager(CacheConfig.PRODUCT_DETAIL_JSON);
+        detailCache = new ProductDetailJsonCache(productService, new ObjectMapper(), cacheManager, true, 1024);
+    }
+
+    @Test
+    void get_ShouldBuildOnceAndServeFromCache() {
+        when(productService.getProductDTOById(PRODUCT_ID)).thenAnswer(invocation -> product());
+
+        ProductDetailJsonCache.EncodedJson first = detailCache.get(PRODUCT_ID);
+        ProductDetailJsonCache.EncodedJson second = detailCache.get(PRODUCT_ID);
+
+        assertSame(first, second);
+        verify(productService, times(1)).getProductDTOById(PRODUCT_ID);
+    }
+
+    @Test
+    void get_WhenEvictedDuringBuild_ShouldNotCacheTheStaleResult() {
+        when(productService.getProductDTOById(PRODUCT_ID)).thenAnswer(invocation -> {
+            ProductDTO readBeforeCommit = product();
+            // addReview commits and evicts after this build has read the product
+            reviewCount.incrementAndGet();
+            cacheManager.getCache(CacheConfig.PRODUCT_DETAIL_JSON).evict(PRODUCT_ID);
+            return readBeforeCommit;
+        }).thenAnswer(invocation -> product());
+
+        ProductDetailJsonCache.EncodedJson stale = detailCache.get(PRODUCT_ID);
+        ProductDetailJsonCache.EncodedJson fresh = detailCache.get(PRODUCT_ID);
+
+        assertNotEquals(stale.etag(), fresh.etag());
+        assertTrue(new String(fresh.body()).contains("\"reviewCount\":4"));
+        assertSame(fresh, detailCache.get(PRODUCT_ID));
+        verify(productService, times(2)).getProductDTOById(PRODUCT_ID);
+    }
+
+    @Test
+    void get_WhenBuildFails_ShouldLeaveNoPlaceholderBehind() {
+        when(productService.getProductDTOById(PRODUCT_ID))
+                .thenThrow(new RuntimeException("Product not found"))
+                .thenAnswer(invocation -> product());
+
+        assertThrows(RuntimeException.class, () -> detailCache.get(PRODUCT_ID));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_DETAIL_JSON).get(PRODUCT_ID));
+        assertTrue(new String(detailCache.get(PRODUCT_ID).body()).contains("\"id\":1"));
+    }
+
+    private ProductDTO product() {
+        return new ProductDTO(PRODUCT_ID, "iPhone 15 Pro", "Titanium.", Set.of("Electronics"), 999.99,
+                null, 4.5, reviewCount.get(), null, null);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.productreview.service;
 
+import com.example.productreview.cache.LongIdSet;
+import com.example.productreview.cache.UserSessionCache;
 import com.example.productreview.dto.ProductDTO;
 import com.example.productreview.dto.ReviewDTO;
 import com.example.productreview.model.Product;
@@ -13,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -20,11 +23,13 @@ import org.springframework.data.domain.Pageable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +47,18 @@ public class ProductServiceTest {
     @Mock
     private AISummaryService aiSummaryService;
 
+    @Mock
+    private HelpfulVoteBuffer helpfulVoteBuffer;
+
+    @Mock
+    private UserSessionCache userSessionCache;
+
+    @Mock
+    private HelpfulRankingIndex helpfulRankingIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -90,6 +107,15 @@ public class ProductServiceTest {
         assertEquals(product.getName(), result.getName());
     }
 
+    @Test
+    void getUserVotedReviewIdsForProduct_ShouldAnswerFromCachedVotesAndRanking() {
+        when(userSessionCache.votedReviews(eq("alice"), any())).thenReturn(LongIdSet.of(List.of(3L, 7L, 12L)));
+        when(helpfulRankingIndex.retainReviews(1L, List.of(3L, 7L, 12L))).thenReturn(List.of(7L));
+
+        assertEquals(List.of(7L), productService.getUserVotedReviewIdsForProduct("alice", 1L));
+        verifyNoInteractions(reviewVoteRepository);
+    }
+
     @Test
     void addReview_ShouldUpdateStatsAndReturnDTO() {
         ReviewDTO reviewDTO = new ReviewDTO();
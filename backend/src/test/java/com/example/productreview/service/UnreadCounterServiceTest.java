@@ -0,0 +1,68 @@
+package com.example.productreview.service;
+
+import com.example.productreview.repository.NotificationCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class UnreadCounterServiceTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private NotificationCounterRepository counterRepository;
+
+    @Test
+    void concurrentFirstWrites_ShouldAllSucceedAndBeCounted() throws Exception {
+        String userId = "counter-race-" + UUID.randomUUID();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int index = i;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    userService.createNotification(userId, "Race " + index, "First notification race", null);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                // Rethrows whatever a writer hit, e.g. a primary key violation on the summary row
+                write.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(WRITERS, counterRepository.findById(userId).orElseThrow().getUnreadCount());
+        assertEquals(WRITERS, unreadCounterService.unreadCount(userId));
+    }
+
+    @Test
+    void unreadCount_ForUserWithoutSummaryRow_ShouldNotCreateOne() {
+        String userId = "counter-reader-" + UUID.randomUUID();
+
+        assertEquals(0, unreadCounterService.unreadCount(userId));
+        assertFalse(counterRepository.existsById(userId));
+    }
+}
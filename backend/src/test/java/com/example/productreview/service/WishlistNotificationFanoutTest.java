@@ -0,0 +1,94 @@
+package com.example.productreview.service;
+
+import com.example.productreview.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Chunked fan-out of product changes to wishlisting users against an
+ * in-memory H2 with just the tables it reads and writes.
+ */
+public class WishlistNotificationFanoutTest {
+
+    private static final long PRODUCT_ID = 1L;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private UnreadCounterService unreadCounterService;
+    private NotificationPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:wishlist_fanout;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        unreadCounterService = mock(UnreadCounterService.class);
+        pushService = mock(NotificationPushService.class);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS wishlist_items (id BIGINT PRIMARY KEY, "
+                + "user_id VARCHAR(255) NOT NULL, product_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notifications (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "user_id VARCHAR(255), title VARCHAR(255), message VARCHAR(255), is_read BOOLEAN, "
+                + "created_at TIMESTAMP(6), product_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS notification_counters "
+                + "(user_id VARCHAR(255) PRIMARY KEY, unread_count BIGINT NOT NULL)");
+        jdbcTemplate.update("DELETE FROM wishlist_items");
+        jdbcTemplate.update("DELETE FROM notifications");
+        jdbcTemplate.update("DELETE FROM notification_counters");
+    }
+
+    @Test
+    void fanOut_ShouldNotifyEveryWishlistingUserInChunks() {
+        for (int i = 1; i <= 5; i++) {
+            wishlist(i, "user" + i, PRODUCT_ID);
+        }
+        wishlist(6, "user1", 2L);
+        jdbcTemplate.update("INSERT INTO notification_counters (user_id, unread_count) VALUES ('user1', 2)");
+        when(pushService.isConnected("user3")).thenReturn(true);
+
+        int sent = fanout(2).fanOut(new ProductChangedEvent(PRODUCT_ID, "iPhone 15 Pro", 999.99, 899.99, 4.5, 4.5));
+
+        assertEquals(5, sent);
+        assertEquals(5, count("SELECT COUNT(*) FROM notifications WHERE product_id = 1"));
+        assertEquals(1, count("SELECT COUNT(*) FROM notifications WHERE user_id = 'user5' "
+                + "AND message = 'iPhone 15 Pro dropped from $999.99 to $899.99'"));
+        assertEquals(3, count("SELECT unread_count FROM notification_counters WHERE user_id = 'user1'"));
+        for (int i = 1; i <= 5; i++) {
+            verify(unreadCounterService).applyCommitted("user" + i, 1);
+        }
+        verify(pushService).publishPending("user3");
+        verify(pushService, times(1)).publishPending(anyString());
+    }
+
+    @Test
+    void fanOut_WhenNothingUserVisibleChanged_ShouldSkip() {
+        wishlist(1, "user1", PRODUCT_ID);
+
+        int sent = fanout(10).fanOut(new ProductChangedEvent(PRODUCT_ID, "iPhone 15 Pro", 899.99, 999.99, 4.5, 4.5));
+
+        assertEquals(0, sent);
+        assertEquals(0, count("SELECT COUNT(*) FROM notifications"));
+        verifyNoInteractions(unreadCounterService, pushService);
+    }
+
+    private WishlistNotificationFanout fanout(int chunkSize) {
+        return new WishlistNotificationFanout(jdbcTemplate, pushService, unreadCounterService, transactionManager,
+                chunkSize);
+    }
+
+    private void wishlist(long id, String userId, long productId) {
+        jdbcTemplate.update("INSERT INTO wishlist_items (id, user_id, product_id) VALUES (?, ?, ?)", id, userId, productId);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.productreview.benchmark;
+
+import com.example.productreview.model.Product;
+import com.example.productreview.model.Review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks (fixed seed, so runs are comparable).
+ */
+public final class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"Electronics", "Audio", "Wearables", "Home", "Books", "Gaming"};
+    private static final String[] COMMENTS = {
+            "Great quality and fast delivery, would buy again.",
+            "Excellent performance, the speed is impressive.",
+            "Beautiful design, looks even better in person.",
+            "Battery life is good enough for a full day.",
+            "Average product, does what it says and nothing more.",
+            "Stopped working after a week, poor quality.",
+            "Terrible experience, arrived broken and support was slow.",
+            "Too expensive for what you get, price is not worth it."
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static List<Review> reviews(int count, Product product) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Skewed towards positive ratings, like the seeded data
+            int rating = Math.min(5, 1 + (int) Math.round(Math.abs(random.nextGaussian()) * 1.2 + random.nextInt(3)));
+            reviews.add(new Review((long) i + 1, "Reviewer " + i, COMMENTS[random.nextInt(COMMENTS.length)],
+                    rating, random.nextInt(50), start.plusMinutes(i), product));
+        }
+        return reviews;
+    }
+
+    public static List<Product> products(int count) {
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Set<String> categories = Set.of(CATEGORIES[i % CATEGORIES.length], CATEGORIES[(i + 1) % CATEGORIES.length]);
+            products.add(new Product((long) i + 1, "Product " + i, "Description of product " + i, categories,
+                    10 + random.nextInt(2000) + 0.99, "https://example.com/" + i + ".jpg",
+                    Math.round((1 + random.nextDouble() * 4) * 10.0) / 10.0, random.nextInt(500), new ArrayList<>()));
+        }
+        return products;
+    }
+
+    public static Product product() {
+        return products(1).get(0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.productreview.dto;
+
+import com.example.productreview.benchmark.BenchmarkData;
+import com.example.productreview.model.Product;
+import com.example.productreview.model.Review;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Response serialization with an ObjectMapper configured like Spring Boot's
+ * default (JavaTimeModule, dates as ISO strings).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    // Number of reviews in the serialized page
+    @Param({"10", "1000", "100000"})
+    public int reviewCount;
+
+    private ObjectMapper objectMapper;
+    private ProductDTO productDTO;
+    private Page<ReviewDTO> reviewPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Product product = BenchmarkData.product();
+        productDTO = new ProductDTO(product.getId(), product.getName(), product.getDescription(), product.getCategories(),
+                product.getPrice(), product.getImageUrl(), product.getAverageRating(), product.getReviewCount(),
+                Map.of(5, 120L, 4, 80L, 3, 30L, 2, 10L, 1, 5L),
+                "Based on 245 customer reviews, the overall sentiment is generally positive.");
+
+        List<Review> reviews = BenchmarkData.reviews(reviewCount, product);
+        List<ReviewDTO> content = reviews.stream()
+                .map(r -> new ReviewDTO(r.getId(), r.getReviewerName(), r.getComment(), r.getRating(),
+                        r.getHelpfulCount(), r.getCreatedAt(), product.getId()))
+                .collect(Collectors.toList());
+        reviewPage = new PageImpl<>(content, PageRequest.of(0, reviewCount), reviewCount * 3L);
+    }
+
+    @Benchmark
+    public byte[] productDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(productDTO);
+    }
+
+    @Benchmark
+    public byte[] reviewPage() throws Exception {
+        return objectMapper.writeValueAsBytes(reviewPage);
+    }
+}
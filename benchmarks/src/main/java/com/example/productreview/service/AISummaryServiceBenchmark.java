@@ -0,0 +1,59 @@
+package com.example.productreview.service;
+
+import com.example.productreview.benchmark.BenchmarkData;
+import com.example.productreview.model.Review;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mock-mode summary and chat generation; these run over every review of a product.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AISummaryServiceBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int reviewCount;
+
+    private AISummaryService aiSummaryService;
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        // No sk- key, so the service stays in mock mode and never calls out
+        aiSummaryService = new AISummaryService("test-key", "gpt-4o-mini", 500, Duration.ZERO, null);
+        reviews = BenchmarkData.reviews(reviewCount, BenchmarkData.product());
+    }
+
+    @Benchmark
+    public String generateMockSummary() {
+        return aiSummaryService.generateMockSummary("Product 0", reviews);
+    }
+
+    @Benchmark
+    public String extractPositiveThemes() {
+        return aiSummaryService.extractCommonThemes(reviews, true);
+    }
+
+    @Benchmark
+    public String extractNegativeThemes() {
+        return aiSummaryService.extractCommonThemes(reviews, false);
+    }
+
+    @Benchmark
+    public String chatQuality() {
+        return aiSummaryService.chatWithReviews(1L, "Is the quality good?", reviews);
+    }
+
+    @Benchmark
+    public String chatComplaints() {
+        return aiSummaryService.chatWithReviews(1L, "Any complaints?", reviews);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.productreview.service;
+
+import com.example.productreview.benchmark.BenchmarkData;
+import com.example.productreview.model.Product;
+import com.example.productreview.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductServiceImpl hot paths without a database: the repository is a
+ * proxy that only answers findAll() from an in-memory list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    // Products are sized at one per ten reviews
+    @Param({"10", "1000", "100000"})
+    public int reviewCount;
+
+    private ProductServiceImpl productService;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(Math.max(1, reviewCount / 10));
+        ProductRepository productRepository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && (args == null || args.length == 0)) {
+                        return products;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        productService = new ProductServiceImpl(productRepository, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public void convertToProductDTO(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productService.convertToProductDTO(product));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> globalStatsAll() {
+        return productService.computeGlobalStats(null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> globalStatsFiltered() {
+        return productService.computeGlobalStats("Audio", "product 1");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.productreview.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the in-memory database with a configurable catalogue using JDBC
+ * batches (JPA would dominate start-up time at 100k+ reviews). Product stats
+ * are then computed in one UPDATE so listings look like real data.
+ */
+public class DataSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String NAME_PREFIX = "Load Product ";
+    private static final String[] CATEGORIES = {"Electronics", "Smartphones", "Laptops", "Audio", "Gaming", "Home", "Wearables"};
+    private static final String[] COMMENTS = {
+            "Great quality and fast delivery, would buy again.",
+            "Excellent performance, the speed is impressive.",
+            "Beautiful design, looks even better in person.",
+            "Average product, does what it says and nothing more.",
+            "Stopped working after a week, poor quality.",
+            "Too expensive for what you get, price is not worth it."
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    public DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Target seed(String baseUrl, int products, int reviewsPerProduct, int users) {
+        List<Object[]> productRows = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            productRows.add(new Object[]{NAME_PREFIX + i + " " + CATEGORIES[i % CATEGORIES.length],
+                    "Synthetic product " + i + " for load testing.", 10 + random.nextInt(2000) + 0.99,
+                    "https://example.com/images/" + i + ".jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, description, price, image_url, average_rating, review_count) " +
+                "VALUES (?, ?, ?, ?, 0, 0)", productRows, BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, (String) row[0]);
+            ps.setString(2, (String) row[1]);
+            ps.setDouble(3, (Double) row[2]);
+            ps.setString(4, (String) row[3]);
+        });
+
+        List<Long> productIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE name LIKE ? ORDER BY id", Long.class, NAME_PREFIX + "%");
+
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            categoryRows.add(new Object[]{productIds.get(i), CATEGORIES[i % CATEGORIES.length]});
+            categoryRows.add(new Object[]{productIds.get(i), CATEGORIES[(i + 3) % CATEGORIES.length]});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product_categories (product_id, category) VALUES (?, ?)", categoryRows);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        List<Object[]> reviewRows = new ArrayList<>(BATCH_SIZE);
+        for (Long productId : productIds) {
+            for (int i = 0; i < reviewsPerProduct; i++) {
+                int rating = random.nextInt(10) < 7 ? 4 + random.nextInt(2) : 1 + random.nextInt(3);
+                reviewRows.add(new Object[]{"Reviewer " + random.nextInt(users), COMMENTS[random.nextInt(COMMENTS.length)],
+                        rating, random.nextInt(25), Timestamp.valueOf(start.plusMinutes(random.nextInt(525_600))), productId});
+                if (reviewRows.size() == BATCH_SIZE) {
+                    insertReviews(reviewRows);
+                    reviewRows.clear();
+                }
+            }
+        }
+        insertReviews(reviewRows);
+
+        jdbcTemplate.update("UPDATE products p SET " +
+                "review_count = (SELECT COUNT(*) FROM reviews r WHERE r.product_id = p.id), " +
+                "average_rating = COALESCE((SELECT ROUND(AVG(CAST(r.rating AS DOUBLE)), 1) FROM reviews r WHERE r.product_id = p.id), 0)");
+
+        Long minReviewId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM reviews", Long.class);
+        Long maxReviewId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM reviews", Long.class);
+        long[] ids = productIds.stream().mapToLong(Long::longValue).toArray();
+        return new Target(baseUrl, ids, minReviewId != null ? minReviewId : 1, maxReviewId != null ? maxReviewId : 1, users);
+    }
+
+    private void insertReviews(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (reviewer_name, comment, rating, helpful_count, created_at, product_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.productreview.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the configured operation mix from a fixed pool of workers, each
+ * request carrying a random user's X-User-ID, and records latency per
+ * operation in HDR histograms (microseconds).
+ *
+ * Closed loop by default. With a target rate, workers pace themselves and
+ * record with the expected interval, which corrects for coordinated omission
+ * when the server falls behind.
+ */
+public class LoadDriver {
+
+    private final LoadTestConfig config;
+    private final Target target;
+    private final HttpClient client;
+    private final Operation[] schedule;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LoadDriver(LoadTestConfig config, Target target) {
+        this.config = config;
+        this.target = target;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.schedule = buildSchedule(config.mix());
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + config.warmup().toNanos();
+        long endNanos = measureFromNanos + config.duration().toNanos();
+        long intervalNanos = config.ratePerSecond() > 0
+                ? TimeUnit.SECONDS.toNanos(1) * config.concurrency() / config.ratePerSecond()
+                : 0;
+
+        for (int i = 0; i < config.concurrency(); i++) {
+            workers.execute(() -> work(measureFromNanos, endNanos, intervalNanos));
+        }
+        workers.shutdown();
+        workers.awaitTermination(config.warmup().plus(config.duration()).toSeconds() + 60, TimeUnit.SECONDS);
+        return new LoadReport(histograms, errors, config.duration());
+    }
+
+    private void work(long measureFromNanos, long endNanos, long intervalNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long next = System.nanoTime();
+        while (true) {
+            if (intervalNanos > 0) {
+                next += intervalNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long start = System.nanoTime();
+            if (start >= endNanos) {
+                return;
+            }
+
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(operation.request(target, random)
+                        .header("X-User-ID", target.randomUserId(random))
+                        .timeout(Duration.ofSeconds(30))
+                        .build(), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ok = false;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            if (start >= measureFromNanos) {
+                if (intervalNanos > 0) {
+                    histograms.get(operation).recordValueWithExpectedInterval(micros, TimeUnit.NANOSECONDS.toMicros(intervalNanos));
+                } else {
+                    histograms.get(operation).recordValue(micros);
+                }
+                if (!ok) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    // One slot per unit of weight, so picking is a single random index
+    private static Operation[] buildSchedule(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix has no weight");
+        }
+        Operation[] schedule = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[index++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+}
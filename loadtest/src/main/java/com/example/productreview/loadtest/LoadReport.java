@@ -0,0 +1,71 @@
+package com.example.productreview.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation throughput and latency percentiles (milliseconds).
+ */
+public class LoadReport {
+
+    private final Map<Operation, Histogram> histograms;
+    private final Map<Operation, LongAdder> errors;
+    private final Duration duration;
+
+    public LoadReport(Map<Operation, Histogram> histograms, Map<Operation, LongAdder> errors, Duration duration) {
+        this.histograms = histograms;
+        this.errors = errors;
+        this.duration = duration;
+    }
+
+    public void print(PrintStream out) {
+        double seconds = duration.toMillis() / 1000.0;
+        out.printf(Locale.ROOT, "%-15s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50", "p90", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long errorCount = errors.get(entry.getKey()).sum();
+            printRow(out, entry.getKey().key(), histogram, errorCount, seconds);
+            total.add(histogram);
+            totalErrors += errorCount;
+        }
+        printRow(out, "TOTAL", total, totalErrors, seconds);
+    }
+
+    // One HdrHistogram percentile distribution file per operation, for plotting or diffing runs
+    public void writeHistograms(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey().key() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errorCount, double seconds) {
+        out.printf(Locale.ROOT, "%-15s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds, errorCount,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
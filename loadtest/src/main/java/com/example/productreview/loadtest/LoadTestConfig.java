@@ -0,0 +1,86 @@
+package com.example.productreview.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as key=value arguments, e.g.
+ * duration=2m concurrency=64 products=5000 mix=list:30,helpful:5
+ *
+ * profiles and upstream-latency configure the application under test, e.g.
+ * profiles=vthreads upstream-latency=300ms mix=chat:20 to compare thread modes
+ * against a slow AI upstream. Rate limiting and load shedding are off unless
+ * admission-control=true, since a few thousand synthetic users would
+ * otherwise mostly measure the 429 path.
+ */
+public record LoadTestConfig(Duration duration,
+                             Duration warmup,
+                             int concurrency,
+                             int ratePerSecond,
+                             int products,
+                             int reviewsPerProduct,
+                             int users,
+                             Map<Operation, Integer> mix,
+                             String histogramDir,
+                             String profiles,
+                             String upstreamLatency,
+                             boolean admissionControl) {
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String trimmed = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = trimmed.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(trimmed.substring(0, separator), trimmed.substring(separator + 1));
+        }
+
+        return new LoadTestConfig(
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Integer.parseInt(values.getOrDefault("rate", "0")),
+                Integer.parseInt(values.getOrDefault("products", "1000")),
+                Integer.parseInt(values.getOrDefault("reviews-per-product", "50")),
+                Integer.parseInt(values.getOrDefault("users", "2000")),
+                mix(values.get("mix")),
+                values.get("hdr-out"),
+                values.getOrDefault("profiles", ""),
+                values.getOrDefault("upstream-latency", "0ms"),
+                Boolean.parseBoolean(values.getOrDefault("admission-control", "false")));
+    }
+
+    // "90s", "2m", "1h" or plain seconds
+    private static Duration duration(String value) {
+        char unit = value.charAt(value.length() - 1);
+        if (Character.isDigit(unit)) {
+            return Duration.ofSeconds(Long.parseLong(value));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (unit) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unknown duration unit: " + value);
+        };
+    }
+
+    // Overrides default weights; operations not mentioned keep theirs
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.defaultWeight());
+        }
+        if (value != null && !value.isBlank()) {
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":");
+                mix.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.productreview.loadtest;
+
+import com.example.productreview.ProductReviewApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Starts the backend on a random port against its in-memory H2, seeds it,
+ * drives the configured traffic mix and prints per-endpoint results.
+ * Everything runs in one JVM with no network access needed.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        SpringApplication application = new SpringApplication(ProductReviewApplication.class);
+        if (!config.profiles().isBlank()) {
+            application.setAdditionalProfiles(config.profiles().split(","));
+        }
+
+        // Passed as command-line args so they win over application.properties
+        try (ConfigurableApplicationContext context = application.run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--openai.simulated-latency=" + config.upstreamLatency(),
+                "--rate-limit.enabled=" + config.admissionControl(),
+                "--load-shedding.enabled=" + config.admissionControl())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+
+            long seedStart = System.nanoTime();
+            Target target = new DataSeeder(context.getBean(JdbcTemplate.class))
+                    .seed(baseUrl, config.products(), config.reviewsPerProduct(), config.users());
+            System.out.printf(Locale.ROOT, "Seeded %d products x %d reviews in %.1fs%n",
+                    config.products(), config.reviewsPerProduct(), (System.nanoTime() - seedStart) / 1e9);
+            System.out.printf(Locale.ROOT, "Running %s (+%s warmup), concurrency=%d, rate=%s, users=%d, mix=%s%n",
+                    config.duration(), config.warmup(), config.concurrency(),
+                    config.ratePerSecond() > 0 ? config.ratePerSecond() + "/s" : "unbounded",
+                    config.users(), config.mix());
+            System.out.printf(Locale.ROOT, "Java %s, virtual threads=%s, upstream latency=%s%n",
+                    Runtime.version().feature(),
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled", "false"),
+                    config.upstreamLatency());
+
+            LoadReport report = new LoadDriver(config, target).run();
+            report.print(System.out);
+            if (config.histogramDir() != null) {
+                report.writeHistograms(Path.of(config.histogramDir()));
+            }
+        }
+    }
+}
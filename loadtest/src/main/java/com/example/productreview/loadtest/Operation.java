@@ -0,0 +1,123 @@
+package com.example.productreview.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Calls the mobile app makes, with default weights approximating its traffic:
+ * mostly browsing, some engagement, occasional inbox checks.
+ */
+public enum Operation {
+    LIST("list", 25) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/products?page=" + random.nextInt(5) + "&size=10&sort=name,asc");
+        }
+    },
+    SEARCH("search", 10) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/products?search=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)] + "&page=0&size=10");
+        }
+    },
+    STATS("stats", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/products/stats");
+        }
+    },
+    DETAIL("detail", 20) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/products/" + target.randomProductId(random));
+        }
+    },
+    REVIEWS("reviews", 15) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            String sort = random.nextInt(3) == 0 ? "helpfulCount,desc" : "createdAt,desc";
+            return get(target, "/api/products/" + target.randomProductId(random) + "/reviews?page=" + random.nextInt(3) + "&size=10&sort=" + sort);
+        }
+    },
+    HELPFUL("helpful", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return builder(target, "/api/products/reviews/" + target.randomReviewId(random) + "/helpful")
+                    .PUT(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    WISHLIST("wishlist", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return builder(target, "/api/user/wishlist/" + target.randomProductId(random))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    WISHLIST_READ("wishlist-read", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/user/wishlist");
+        }
+    },
+    NOTIFICATIONS("notifications", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/user/notifications/cursor?size=20");
+        }
+    },
+    UNREAD_COUNT("unread-count", 5) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            return get(target, "/api/user/notifications/unread-count");
+        }
+    },
+    // Off by default; blocks on the (simulated) upstream, see upstream-latency
+    CHAT("chat", 0) {
+        @Override
+        HttpRequest.Builder request(Target target, ThreadLocalRandom random) {
+            String question = CHAT_QUESTIONS[random.nextInt(CHAT_QUESTIONS.length)];
+            return builder(target, "/api/products/" + target.randomProductId(random) + "/chat")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"question\":\"" + question + "\"}"));
+        }
+    };
+
+    private static final String[] SEARCH_TERMS = {"pro", "phone", "air", "product", "max", "ultra"};
+    private static final String[] CHAT_QUESTIONS = {"How is the quality?", "Any complaints?", "How many reviews?"};
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(String key, int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(Target target, ThreadLocalRandom random);
+
+    public String key() {
+        return key;
+    }
+
+    public int defaultWeight() {
+        return defaultWeight;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+
+    private static HttpRequest.Builder get(Target target, String path) {
+        return builder(target, path).GET();
+    }
+
+    private static HttpRequest.Builder builder(Target target, String path) {
+        return HttpRequest.newBuilder(URI.create(target.baseUrl() + path));
+    }
+}
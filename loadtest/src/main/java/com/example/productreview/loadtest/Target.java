@@ -0,0 +1,21 @@
+package com.example.productreview.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The running application and the ids the seeder left in it.
+ */
+public record Target(String baseUrl, long[] productIds, long minReviewId, long maxReviewId, int users) {
+
+    public long randomProductId(ThreadLocalRandom random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    public long randomReviewId(ThreadLocalRandom random) {
+        return random.nextLong(minReviewId, maxReviewId + 1);
+    }
+
+    public String randomUserId(ThreadLocalRandom random) {
+        return String.format("loadtest-user-%06d", random.nextInt(users));
+    }
+}
@@ -1,7 +1,8 @@
 // Notification Context for local notification state management
-import React, { createContext, useContext, useState, useCallback, ReactNode, useEffect } from 'react';
+import React, { createContext, useContext, useState, useCallback, ReactNode, useEffect, useRef } from 'react';
 import { 
   getNotifications, 
+  getUnreadCount,
   markNotificationAsRead, 
   markAllNotificationsAsRead, 
   createNotification,
@@ -27,6 +28,8 @@ export interface Notification {
 interface NotificationContextType {
   notifications: Notification[];
   unreadCount: number;
+  hasMore: boolean;
+  loadMore: () => void;
   addNotification: (notification: Omit<Notification, 'id' | 'timestamp' | 'isRead'>) => void;
   markAsRead: (id: string) => void;
   markAllAsRead: () => void;
@@ -38,35 +41,54 @@ const NotificationContext = createContext<NotificationContextType | undefined>(u
 
 export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ children }) => {
   const [notifications, setNotifications] = useState<Notification[]>([]);
+  // ✨ The list only holds the pages loaded so far, so the count comes from the backend
+  const [unreadCount, setUnreadCount] = useState(0);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const notificationsRef = useRef(notifications);
+  notificationsRef.current = notifications;
+
+  const isUnread = (id: string) => notificationsRef.current.some((n) => n.id === id && !n.isRead);
 
   // Load notifications from Backend on mount
   useEffect(() => {
     loadNotifications();
   }, []);
 
+  const mapNotification = (n: any): Notification => ({
+    id: String(n.id),
+    type: 'system', // Default type as backend doesn't store type yet
+    title: n.title,
+    body: n.message,
+    timestamp: new Date(n.createdAt),
+    // ✨ Fix: Check both 'isRead' and 'read' properties due to JSON serialization
+    isRead: n.isRead !== undefined ? n.isRead : n.read,
+    data: n.productId ? { productId: String(n.productId) } : undefined
+  });
+
   const loadNotifications = async () => {
     try {
       console.log('Loading notifications from backend...');
-      const apiNotifications = await getNotifications();
-      console.log('Loaded notifications:', apiNotifications);
-      
-      const mapped: Notification[] = apiNotifications.map((n: any) => ({
-        id: String(n.id),
-        type: 'system', // Default type as backend doesn't store type yet
-        title: n.title,
-        body: n.message,
-        timestamp: new Date(n.createdAt),
-        // ✨ Fix: Check both 'isRead' and 'read' properties due to JSON serialization
-        isRead: n.isRead !== undefined ? n.isRead : n.read,
-        data: n.productId ? { productId: String(n.productId) } : undefined
-      }));
-      setNotifications(mapped);
+      const [page, unread] = await Promise.all([getNotifications(), getUnreadCount()]);
+      console.log('Loaded notifications:', page.items.length, 'unread:', unread.count);
+
+      setNotifications(page.items.map(mapNotification));
+      setNextCursor(page.nextCursor);
+      setUnreadCount(unread.count);
     } catch (error) {
       console.error('Error loading notifications:', error);
     }
   };
 
-  const unreadCount = notifications.filter((n) => !n.isRead).length;
+  const loadMore = useCallback(async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await getNotifications(nextCursor);
+      setNotifications((prev) => [...prev, ...page.items.map(mapNotification)]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error loading more notifications:', error);
+    }
+  }, [nextCursor]);
 
   const addNotification = useCallback(
     (notification: Omit<Notification, 'id' | 'timestamp' | 'isRead'>) => {
@@ -79,6 +101,7 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
         isRead: false,
       };
       setNotifications((prev) => [newNotification, ...prev]);
+      setUnreadCount((count) => count + 1);
       
       // Sync with Backend
       const productId = notification.data?.productId ? Number(notification.data.productId) : undefined;
@@ -95,6 +118,9 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
 
   const markAsRead = useCallback((id: string) => {
     // Optimistic update
+    if (isUnread(id)) {
+      setUnreadCount((count) => Math.max(0, count - 1));
+    }
     setNotifications((prev) =>
       prev.map((n) => (n.id === id ? { ...n, isRead: true } : n))
     );
@@ -108,6 +134,7 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
   const markAllAsRead = useCallback(() => {
     // Optimistic update
     setNotifications((prev) => prev.map((n) => ({ ...n, isRead: true })));
+    setUnreadCount(0);
     
     // Sync with Backend
     markAllNotificationsAsRead().catch(e => console.error("Backend sync failed", e));
@@ -117,6 +144,9 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
     console.log("Attempting to delete notification:", id);
     
     // Optimistic update
+    if (isUnread(id)) {
+      setUnreadCount((count) => Math.max(0, count - 1));
+    }
     setNotifications((prev) => prev.filter((n) => n.id !== id));
     
     // Sync with Backend
@@ -134,6 +164,8 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
     console.log("Clearing all notifications");
     // Optimistic update
     setNotifications([]);
+    setUnreadCount(0);
+    setNextCursor(null);
     
     // Sync with Backend
     deleteAllNotifications().catch(e => console.error("Backend sync failed", e));
@@ -144,6 +176,8 @@ export const NotificationProvider: React.FC<{ children: ReactNode }> = ({ childr
       value={{
         notifications,
         unreadCount,
+        hasMore: nextCursor !== null,
+        loadMore,
         addNotification,
         markAsRead,
         markAllAsRead,
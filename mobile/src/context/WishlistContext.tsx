@@ -1,7 +1,7 @@
 // Wishlist Context for managing favorite products
 import React, { createContext, useContext, useState, useCallback, ReactNode, useEffect } from 'react';
 import AsyncStorage from '@react-native-async-storage/async-storage';
-import { getWishlist as getWishlistApi, toggleWishlistApi } from '../services/api';
+import { getWishlist as getWishlistApi, toggleWishlistApi, syncWishlistApi } from '../services/api';
 
 const WISHLIST_STORAGE_KEY = 'wishlist_products';
 
@@ -143,10 +143,9 @@ export const WishlistProvider: React.FC<{ children: ReactNode }> = ({ children }
         const updated = [...newItems, ...list];
         saveWishlistToStorage(updated);
         
-        // Sync each item (Parallel)
-        newItems.forEach(item => {
-          toggleWishlistApi(Number(item.id)).catch(e => console.error("Backend sync failed", e));
-        });
+        // Sync all items in one request
+        syncWishlistApi({ add: newItems.map(item => Number(item.id)) })
+          .catch(e => console.error("Backend sync failed", e));
 
         return updated;
       });
@@ -186,10 +185,9 @@ export const WishlistProvider: React.FC<{ children: ReactNode }> = ({ children }
         const updated = list.filter((item) => !idsSet.has(String(item.id)));
         saveWishlistToStorage(updated);
         
-        // Sync each item
-        toRemove.forEach(item => {
-          toggleWishlistApi(Number(item.id)).catch(e => console.error("Backend sync failed", e));
-        });
+        // Sync all items in one request
+        syncWishlistApi({ remove: toRemove.map(item => Number(item.id)) })
+          .catch(e => console.error("Backend sync failed", e));
 
         return updated;
       });
@@ -216,9 +214,10 @@ export const WishlistProvider: React.FC<{ children: ReactNode }> = ({ children }
     saveWishlistToStorage([]);
     
     // Remove all from backend
-    currentIds.forEach(id => {
-      toggleWishlistApi(Number(id)).catch(e => console.error("Backend sync failed", e));
-    });
+    if (currentIds.length > 0) {
+      syncWishlistApi({ remove: currentIds.map(id => Number(id)) })
+        .catch(e => console.error("Backend sync failed", e));
+    }
   }, [wishlist]);
 
   return (
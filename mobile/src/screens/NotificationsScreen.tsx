@@ -76,7 +76,7 @@ function getNotificationColor(type: NotificationType, colors: ReturnType<typeof
 export const NotificationsScreen: React.FC = () => {
   const navigation = useNavigation<NativeStackNavigationProp<RootStackParamList>>();
   const { colors } = useTheme();
-  const { notifications, unreadCount, markAsRead, markAllAsRead } = useNotifications();
+  const { notifications, unreadCount, hasMore, loadMore, markAsRead, markAllAsRead } = useNotifications();
 
   const [selectedFilter, setSelectedFilter] = useState<FilterType>('all');
 
@@ -251,6 +251,8 @@ export const NotificationsScreen: React.FC = () => {
           renderItem={renderNotification}
           ListHeaderComponent={renderHeader}
           ListEmptyComponent={renderEmpty}
+          onEndReached={() => hasMore && loadMore()}
+          onEndReachedThreshold={0.5}
           contentContainerStyle={styles.listContent}
           showsVerticalScrollIndicator={false}
           ItemSeparatorComponent={() => <View style={{ height: Spacing.md }} />}
@@ -34,6 +34,12 @@ export type Page<T> = {
   last: boolean;
 };
 
+// ✨ Keyset page: pass nextCursor back as "after"; null on the last page
+export type CursorPage<T> = {
+  items: T[];
+  nextCursor: string | null;
+};
+
 export type ApiProduct = {
   id: number;
   name: string;
@@ -196,8 +202,19 @@ export function toggleWishlistApi(productId: number) {
   });
 }
 
-export function getNotifications() {
-  return request<ApiNotification[]>(`${BASE_URL}/api/user/notifications`);
+// ✨ Bulk add/remove (idempotent, unlike toggle); returns the resulting wishlist IDs
+export function syncWishlistApi(changes: { add?: number[]; remove?: number[] }) {
+  return request<number[]>(`${BASE_URL}/api/user/wishlist/sync`, {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ add: changes.add ?? [], remove: changes.remove ?? [] }),
+  });
+}
+
+export function getNotifications(after?: string | null, size = 20) {
+  const q = new URLSearchParams({ size: String(size) });
+  if (after) q.set("after", after);
+  return request<CursorPage<ApiNotification>>(`${BASE_URL}/api/user/notifications/cursor?${q.toString()}`);
 }
 
 export function getUnreadCount() {
@@ -211,7 +228,7 @@ export function markNotificationAsRead(id: number) {
 }
 
 export function markAllNotificationsAsRead() {
-  return request<void>(`${BASE_URL}/api/user/notifications/read-all`, {
+  return request<{ updated: number }>(`${BASE_URL}/api/user/notifications/read-all`, {
     method: "PUT",
   });
 }
@@ -231,7 +248,7 @@ export function deleteNotification(id: number) {
 }
 
 export function deleteAllNotifications() {
-  return request<void>(`${BASE_URL}/api/user/notifications`, {
+  return request<{ deleted: number }>(`${BASE_URL}/api/user/notifications`, {
     method: "DELETE",
   });
 }
\ No newline at end of file